@@ -0,0 +1,74 @@
+package com.myapp.benchmark;
+
+import com.myapp.security.CachingAuthenticationProvider;
+import com.myapp.security.SecurityConfiguration;
+import com.myapp.security.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost of one request: HTTP Basic against the user store as configured in
+ * {@link SecurityConfiguration} (a bcrypt hash per request), the same with the credential cache, and the
+ * verification of a bearer token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private AuthenticationProvider basic;
+
+    private AuthenticationProvider cachedBasic;
+
+    private TokenService tokenService;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+        daoAuthenticationProvider.setUserDetailsService(new SecurityConfiguration().userDetailsService());
+        basic = daoAuthenticationProvider;
+        cachedBasic = new CachingAuthenticationProvider(daoAuthenticationProvider, "maximumSize=1000,expireAfterWrite=60s");
+        tokenService = new TokenService(new byte[32], Duration.ofMinutes(15), Clock.systemUTC());
+        token = tokenService.issue(basic.authenticate(credentials())).getValue();
+    }
+
+    @Benchmark
+    public Authentication basic() {
+        return basic.authenticate(credentials());
+    }
+
+    @Benchmark
+    public Authentication cachedBasic() {
+        return cachedBasic.authenticate(credentials());
+    }
+
+    @Benchmark
+    public Authentication token() {
+        return tokenService.verify(token);
+    }
+
+    private static Authentication credentials() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("user", "password");
+    }
+}
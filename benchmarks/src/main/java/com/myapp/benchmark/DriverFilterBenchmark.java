@@ -0,0 +1,67 @@
+package com.myapp.benchmark;
+
+import com.myapp.controller.mapper.DriverMapper;
+import com.myapp.datatransferobject.DriverDTO;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.OnlineStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The in-JVM filtering {@code GET /v1/drivers} did before the filters were pushed into the database: load the whole
+ * fleet, filter it with one stream per parameter and map the rest. Kept as the baseline for the database query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class DriverFilterBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int fleetSize;
+
+    private List<DriverDO> fleet;
+
+    @Setup
+    public void setUp() {
+        fleet = Fleet.drivers(fleetSize);
+    }
+
+    @Benchmark
+    public List<DriverDTO> filterByOnlineStatus() {
+        return filter(fleet, OnlineStatus.ONLINE, null, null);
+    }
+
+    @Benchmark
+    public List<DriverDTO> filterByAllParameters() {
+        return filter(fleet, OnlineStatus.ONLINE, "driver" + (fleetSize / 2), false);
+    }
+
+    private static List<DriverDTO> filter(List<DriverDO> drivers, OnlineStatus onlineStatus, String username, Boolean deleted) {
+        if (onlineStatus != null) {
+            drivers = drivers.stream().filter(driver -> driver.getOnlineStatus() == onlineStatus).collect(Collectors.toList());
+        }
+        if (username != null) {
+            drivers = drivers.stream().filter(driver -> driver.getUsername().equals(username)).collect(Collectors.toList());
+        }
+        if (deleted != null) {
+            drivers = drivers.stream().filter(driver -> driver.getDeleted().equals(deleted)).collect(Collectors.toList());
+        }
+        return DriverMapper.makeDriverDTOList(drivers);
+    }
+}
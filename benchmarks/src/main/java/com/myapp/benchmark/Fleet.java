@@ -0,0 +1,52 @@
+package com.myapp.benchmark;
+
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.OnlineStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible fleets for the benchmarks: half of the drivers are online, one in ten is deleted and three in
+ * four have a position around Berlin.
+ */
+final class Fleet {
+
+    private static final long SEED = 42;
+
+    private Fleet() {
+    }
+
+    static List<DriverDO> drivers(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<DriverDO> drivers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DriverDO driver = new DriverDO("driver" + i, "driver" + i + "pw");
+            driver.setId((long) i + 1);
+            driver.setOnlineStatus(random.nextBoolean() ? OnlineStatus.ONLINE : OnlineStatus.OFFLINE);
+            driver.setDeleted(random.nextInt(10) == 0);
+            if (random.nextInt(4) != 0) {
+                driver.setCoordinate(new GeoCoordinate(52.3 + random.nextDouble(0.4), 13.1 + random.nextDouble(0.6)));
+            }
+            drivers.add(driver);
+        }
+        return drivers;
+    }
+
+    static List<CarDO> cars(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        EngineType[] engineTypes = EngineType.values();
+        List<CarDO> cars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CarDO car = new CarDO(String.format("%06dPW", i), 2 + random.nextInt(6), random.nextBoolean(), random.nextInt(11),
+                    engineTypes[random.nextInt(engineTypes.length)], "MERCEDES");
+            car.setId((long) i + 1);
+            cars.add(car);
+        }
+        return cars;
+    }
+}
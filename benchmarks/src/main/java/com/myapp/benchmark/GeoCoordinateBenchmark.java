@@ -0,0 +1,52 @@
+package com.myapp.benchmark;
+
+import com.myapp.domainvalue.GeoCoordinate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of coordinates, which validates the range of latitude and longitude on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoCoordinateBenchmark {
+
+    // fields instead of constants, so the JIT can't fold the validation away
+    private double latitude = 52.52;
+
+    private double longitude = 13.405;
+
+    private double invalidLatitude = 95.0;
+
+    @Benchmark
+    public GeoCoordinate validCoordinate() {
+        return new GeoCoordinate(latitude, longitude);
+    }
+
+    @Benchmark
+    public Object invalidCoordinate() {
+        try {
+            return new GeoCoordinate(invalidLatitude, longitude);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double distance() {
+        return GeoCoordinate.distanceInMeters(latitude, longitude, latitude + 0.01, longitude + 0.01);
+    }
+}
@@ -0,0 +1,61 @@
+package com.myapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myapp.controller.mapper.CarMapper;
+import com.myapp.controller.mapper.DriverMapper;
+import com.myapp.datatransferobject.CarDTO;
+import com.myapp.datatransferobject.DriverDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the DTO lists returned by the list endpoints, with an object mapper configured like the one of
+ * Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<CarDTO> cars;
+
+    private List<DriverDTO> drivers;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cars = CarMapper.makeCarDTOList(Fleet.cars(size));
+        drivers = DriverMapper.makeDriverDTOList(Fleet.drivers(size));
+    }
+
+    @Benchmark
+    public byte[] serializeCars() throws Exception {
+        return objectMapper.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public byte[] serializeDrivers() throws Exception {
+        return objectMapper.writeValueAsBytes(drivers);
+    }
+}
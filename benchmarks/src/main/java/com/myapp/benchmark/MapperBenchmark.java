@@ -0,0 +1,62 @@
+package com.myapp.benchmark;
+
+import com.myapp.controller.mapper.CarMapper;
+import com.myapp.controller.mapper.DriverMapper;
+import com.myapp.datatransferobject.CarDTO;
+import com.myapp.datatransferobject.DriverDTO;
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainobject.DriverDO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of domain objects to the DTOs returned by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private List<CarDO> cars;
+
+    private List<DriverDO> drivers;
+
+    @Setup
+    public void setUp() {
+        cars = Fleet.cars(size);
+        drivers = Fleet.drivers(size);
+    }
+
+    @Benchmark
+    public CarDTO makeCarDTO() {
+        return CarMapper.makeCarDTO(cars.get(0));
+    }
+
+    @Benchmark
+    public List<CarDTO> makeCarDTOList() {
+        return CarMapper.makeCarDTOList(cars);
+    }
+
+    @Benchmark
+    public List<DriverDTO> makeDriverDTOList() {
+        return DriverMapper.makeDriverDTOList(drivers);
+    }
+}
@@ -0,0 +1,272 @@
+package com.myapp.benchmark.load;
+
+import com.myapp.MyappServer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator. Boots {@link MyappServer} on a random port and sends a weighted mix of requests at a
+ * fixed arrival rate.
+ * <p/>
+ * Requests are started at their scheduled time whether or not earlier ones have completed, and latency is measured
+ * from the scheduled start rather than the actual send time. A server which stalls therefore shows up in the
+ * percentiles instead of silently slowing down the generator (coordinated omission).
+ * <p/>
+ * Arguments, all optional: {@code --rate=200} requests per second, {@code --warmup=10} and {@code --duration=30}
+ * seconds, {@code --mix=drivers:4,car:4,cars:1,location:10,selectCar:1} relative weights.
+ */
+public class LoadGenerator {
+
+    private static final String CREDENTIALS = "Basic " + Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+
+    /** online drivers of the seed migration V3__seed_data.sql, each one paired with its own car for the car selection */
+    private static final long[] ONLINE_DRIVER_IDS = {4, 5, 6, 8};
+
+    private static final int CAR_COUNT = 1000;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+
+    private final Map<Operation, Integer> mix;
+
+    private final Queue<Long> freeDrivers = new ConcurrentLinkedQueue<>();
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    LoadGenerator(String baseUrl, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        for (long driverId : ONLINE_DRIVER_IDS) {
+            freeDrivers.add(driverId);
+        }
+        reset();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", "drivers:4,car:4,cars:1,location:10,selectCar:1"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MyappServer.class)
+                // the generator sends no heartbeats, keep the seeded drivers online for the whole run
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.com.myapp=WARN",
+                        "myapp.driver.presence.timeout-seconds=" + TimeUnit.DAYS.toSeconds(1))
+                .run()) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadGenerator generator = new LoadGenerator("http://localhost:" + port, mix);
+            generator.seedCars();
+
+            System.out.printf("warming up for %d s at %d requests/s%n", warmupSeconds, rate);
+            generator.run(rate, warmupSeconds);
+            generator.reset();
+
+            System.out.printf("measuring for %d s at %d requests/s%n", durationSeconds, rate);
+            generator.run(rate, durationSeconds);
+            generator.printReport(System.out);
+        }
+    }
+
+    /**
+     * Creates the cars used by {@link Operation#CAR} and {@link Operation#SELECT_CAR}.
+     */
+    void seedCars() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < CAR_COUNT; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"licensePlate\":\"").append(licensePlate(i))
+                    .append("\",\"seatCount\":4,\"rating\":5,\"engineType\":\"ELECTRIC\",\"manufacturer\":\"LOADTEST\"}");
+        }
+        body.append("]");
+        HttpResponse<String> response = httpClient.send(request("/v1/cars:batch")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding cars failed with status " + response.statusCode());
+        }
+    }
+
+    /**
+     * Sends requests at the given rate for the given time and waits for the outstanding ones.
+     */
+    void run(int requestsPerSecond, int seconds) {
+        SplittableRandom random = new SplittableRandom();
+        Operation[] weighted = weightedOperations();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long total = (long) requestsPerSecond * seconds;
+        List<CompletableFuture<Void>> outstanding = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = weighted[random.nextInt(weighted.length)];
+            outstanding.add(send(operation, random.split(), intendedStart));
+            outstanding.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(outstanding.toArray(new CompletableFuture[0])).join();
+    }
+
+    void reset() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+        skipped.set(0);
+    }
+
+    void printReport(PrintStream out) {
+        out.printf("%-10s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : mix.keySet()) {
+            Histogram histogram = histograms.get(operation);
+            out.printf("%-10s %10d %8d %10.2f %10.2f %10.2f %10.2f%n", operation.getKey(), histogram.getTotalCount(),
+                    errors.get(operation).get(), millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+        if (skipped.get() > 0) {
+            out.printf("%d car selections skipped, all drivers were busy%n", skipped.get());
+        }
+    }
+
+    private CompletableFuture<Void> send(Operation operation, SplittableRandom random, long intendedStart) {
+        CompletableFuture<Boolean> result;
+        switch (operation) {
+            case DRIVERS:
+                result = exchange(request("/v1/drivers?onlineStatus=ONLINE&limit=100").GET());
+                break;
+            case CAR:
+                result = exchange(request("/v1/cars/" + licensePlate(random.nextInt(CAR_COUNT))).GET());
+                break;
+            case CARS:
+                result = exchange(request("/v1/cars").GET());
+                break;
+            case LOCATION:
+                long driverId = 1 + random.nextInt(8);
+                double latitude = 52.3 + random.nextDouble(0.4);
+                double longitude = 13.1 + random.nextDouble(0.6);
+                result = exchange(request("/v1/drivers/" + driverId + "?longitude=" + longitude + "&latitude=" + latitude)
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+                break;
+            case SELECT_CAR:
+                result = selectCar();
+                if (result == null) {
+                    skipped.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected operation " + operation);
+        }
+        return result
+                .exceptionally(e -> false)
+                .thenAccept(ok -> {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                    histograms.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    if (!ok) {
+                        errors.get(operation).incrementAndGet();
+                    }
+                });
+    }
+
+    /**
+     * Selects and deselects the car of a free driver, or returns null if all drivers are busy.
+     */
+    private CompletableFuture<Boolean> selectCar() {
+        Long driverId = freeDrivers.poll();
+        if (driverId == null) {
+            return null;
+        }
+        String path = "/v1/drivers/" + driverId + "/car/" + licensePlate(driverId.intValue());
+        return exchange(request(path).PUT(HttpRequest.BodyPublishers.noBody()))
+                .thenCompose(selected -> exchange(request(path).DELETE()).thenApply(deselected -> selected && deselected))
+                .whenComplete((ok, e) -> freeDrivers.add(driverId));
+    }
+
+    private CompletableFuture<Boolean> exchange(HttpRequest.Builder request) {
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() < 400);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", CREDENTIALS);
+    }
+
+    private Operation[] weightedOperations() {
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        return weighted.toArray(new Operation[0]);
+    }
+
+    private static String licensePlate(int index) {
+        return String.format("LT%05d", index);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
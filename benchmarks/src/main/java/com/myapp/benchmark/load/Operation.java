@@ -0,0 +1,41 @@
+package com.myapp.benchmark.load;
+
+/**
+ * The requests the load generator can send. Each one gets its own latency histogram.
+ */
+enum Operation {
+
+    /** {@code GET /v1/drivers}, first page of the online drivers */
+    DRIVERS("drivers"),
+
+    /** {@code GET /v1/cars/{licensePlate}} */
+    CAR("car"),
+
+    /** {@code GET /v1/cars}, the whole catalog */
+    CARS("cars"),
+
+    /** {@code PUT /v1/drivers/{driverId}} with a new position */
+    LOCATION("location"),
+
+    /** {@code PUT} and then {@code DELETE /v1/drivers/{driverId}/car/{licensePlate}}, measured together */
+    SELECT_CAR("selectCar");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+}
@@ -0,0 +1,24 @@
+package com.myapp.benchmark.load;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Simulates a remote database on top of the in-memory H2: every statement waits {@code db.latency.millis} before it is
+ * prepared, while holding its connection.
+ */
+public class SlowStatementInspector implements StatementInspector {
+
+    private static final long LATENCY_MILLIS = Long.getLong("db.latency.millis", 0);
+
+    @Override
+    public String inspect(String sql) {
+        if (LATENCY_MILLIS > 0) {
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
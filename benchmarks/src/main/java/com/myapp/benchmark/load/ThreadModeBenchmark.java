@@ -0,0 +1,108 @@
+package com.myapp.benchmark.load;
+
+import com.myapp.MyappServer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput of platform and virtual request threads when the database is slow. Boots the application
+ * once per mode with {@link SlowStatementInspector} and lets a fixed number of clients call
+ * {@code GET /v1/drivers/{id}} back to back (closed loop), so the server is saturated.
+ * <p/>
+ * Arguments, all optional: {@code --concurrency=800} clients, {@code --db-latency-millis=20},
+ * {@code --pool-size=400} database connections, {@code --tomcat-threads=200} platform request threads,
+ * {@code --warmup=10} and {@code --duration=30} seconds.
+ */
+public class ThreadModeBenchmark {
+
+    private static final String CREDENTIALS = "Basic " + Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "800"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        System.setProperty("db.latency.millis", options.getOrDefault("db-latency-millis", "20"));
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            // no heartbeats are sent, the seeded drivers must not expire and be written offline during the run
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MyappServer.class)
+                    .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.com.myapp=WARN",
+                            "myapp.driver.presence.timeout-seconds=" + TimeUnit.DAYS.toSeconds(1),
+                            "spring.threads.virtual.enabled=" + virtual,
+                            "server.tomcat.threads.max=" + options.getOrDefault("tomcat-threads", "200"),
+                            "spring.datasource.hikari.maximum-pool-size=" + options.getOrDefault("pool-size", "400"),
+                            "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SlowStatementInspector.class.getName())
+                    .run()) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                run(baseUrl, concurrency, warmupSeconds);
+                Result result = run(baseUrl, concurrency, durationSeconds);
+                System.out.printf("%-8s threads: %8.0f requests/s, %d errors, p50 %.1f ms, p99 %.1f ms%n",
+                        virtual ? "virtual" : "platform", result.requests.get() / (double) durationSeconds, result.errors.get(),
+                        result.latency.getValueAtPercentile(50) / 1000.0, result.latency.getValueAtPercentile(99) / 1000.0);
+            }
+        }
+    }
+
+    private static Result run(String baseUrl, int concurrency, int seconds) {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Result result = new Result();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            clients[i] = loop(httpClient, baseUrl + "/v1/drivers/" + (1 + i % 8), end, result);
+        }
+        CompletableFuture.allOf(clients).join();
+        return result;
+    }
+
+    /**
+     * Sends the next request as soon as the previous one has completed, until the end time.
+     */
+    private static CompletableFuture<Void> loop(HttpClient httpClient, String url, long end, Result result) {
+        if (System.nanoTime() >= end) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", CREDENTIALS)
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    result.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HIGHEST_TRACKABLE_MICROS));
+                    result.requests.incrementAndGet();
+                    if (e != null || response.statusCode() >= 400) {
+                        result.errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(httpClient, url, end, result));
+    }
+
+    private static final class Result {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+}
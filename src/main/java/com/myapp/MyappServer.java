@@ -1,6 +1,7 @@
 package com.myapp;
 
 import com.myapp.util.LoggingInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -10,6 +11,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class MyappServer implements WebMvcConfigurer
 {
 
+    private final ObjectProvider<LoggingInterceptor> loggingInterceptor;
+
+
+    public MyappServer(ObjectProvider<LoggingInterceptor> loggingInterceptor)
+    {
+        this.loggingInterceptor = loggingInterceptor;
+    }
+
+
     public static void main(String[] args)
     {
         SpringApplication.run(MyappServer.class, args);
@@ -19,6 +29,6 @@ public class MyappServer implements WebMvcConfigurer
     @Override
     public void addInterceptors(InterceptorRegistry registry)
     {
-        registry.addInterceptor(new LoggingInterceptor()).addPathPatterns("/**");
+        loggingInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns("/**"));
     }
 }
@@ -0,0 +1,30 @@
+package com.myapp.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local Caffeine caches. Puts and evictions done inside a transaction are applied after its commit, so a reader can't
+ * cache a row which is about to be changed by a transaction still running.
+ * <p/>
+ * Hit, miss and eviction counts are published as the {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String CARS = "cars";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${myapp.cache.cars.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String carsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CARS);
+        cacheManager.setCacheSpecification(carsSpec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,124 @@
+package com.myapp.controller;
+
+import com.myapp.controller.mapper.CarMapper;
+import com.myapp.controller.mapper.DriverMapper;
+import com.myapp.datatransferobject.BatchItemResultDTO;
+import com.myapp.datatransferobject.CarDTO;
+import com.myapp.datatransferobject.DriverDTO;
+import com.myapp.datatransferobject.LookupResultDTO;
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.exception.ConstraintsViolationException;
+import com.myapp.service.car.CarService;
+import com.myapp.service.driver.DriverService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk operations on cars and drivers. They live in their own controller because a method mapping like
+ * {@code :batch} is always joined to the class mapping with a slash.
+ * <p/>
+ * In batch creates every item gets a result in request order; invalid or duplicate items don't prevent the others
+ * from being created.
+ */
+@RestController
+public class BulkController {
+
+    private final CarService carService;
+    private final DriverService driverService;
+    private final Validator validator;
+
+    @Autowired
+    public BulkController(final CarService carService, final DriverService driverService, final Validator validator) {
+        this.carService = carService;
+        this.driverService = driverService;
+        this.validator = validator;
+    }
+
+    @PostMapping("v1/cars:batch")
+    public List<BatchItemResultDTO> createCars(@RequestBody List<CarDTO> cars) throws ConstraintsViolationException {
+        List<BatchItemResultDTO> results = new ArrayList<>(cars.size());
+        List<CarDO> validCars = new ArrayList<>(cars.size());
+        for (CarDTO carDTO : cars) {
+            CarDO carDO = CarMapper.makeCarDO(carDTO);
+            BatchItemResultDTO invalid = validate(carDTO.getLicensePlate(), carDO);
+            if (invalid == null) {
+                validCars.add(carDO);
+            }
+            results.add(invalid);
+        }
+
+        List<BatchItemStatus> statuses = carService.createAll(validCars);
+
+        Iterator<BatchItemStatus> status = statuses.iterator();
+        for (int i = 0; i < cars.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, BatchItemResultDTO.of(cars.get(i).getLicensePlate(), status.next()));
+            }
+        }
+        return results;
+    }
+
+    @PostMapping("v1/drivers:batch")
+    public List<BatchItemResultDTO> createDrivers(@RequestBody List<DriverDTO> drivers) throws ConstraintsViolationException {
+        List<BatchItemResultDTO> results = new ArrayList<>(drivers.size());
+        List<DriverDO> validDrivers = new ArrayList<>(drivers.size());
+        for (DriverDTO driverDTO : drivers) {
+            DriverDO driverDO = DriverMapper.makeDriverDO(driverDTO);
+            BatchItemResultDTO invalid = validate(driverDTO.getUsername(), driverDO);
+            if (invalid == null) {
+                validDrivers.add(driverDO);
+            }
+            results.add(invalid);
+        }
+
+        List<BatchItemStatus> statuses = driverService.createAll(validDrivers);
+
+        Iterator<BatchItemStatus> status = statuses.iterator();
+        for (int i = 0; i < drivers.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, BatchItemResultDTO.of(drivers.get(i).getUsername(), status.next()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Resolves many cars by license plate with one query, or from the cache. License plates which don't exist are
+     * listed as missing.
+     */
+    @PostMapping("v1/cars:lookup")
+    public LookupResultDTO<CarDTO> lookupCars(@RequestBody List<String> licensePlates) throws ConstraintsViolationException {
+        Map<String, CarDO> cars = carService.findByLicensePlates(licensePlates);
+        List<String> missing = licensePlates.stream()
+                .distinct()
+                .filter(licensePlate -> !cars.containsKey(licensePlate))
+                .collect(Collectors.toList());
+        return LookupResultDTO.of(CarMapper.makeCarDTOList(cars.values()), missing);
+    }
+
+    /**
+     * Checks the constraints which would otherwise fail the whole batch on insert.
+     *
+     * @return the result of an invalid item, or null if the item is valid
+     */
+    private BatchItemResultDTO validate(String key, Object domainObject) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(domainObject);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return BatchItemResultDTO.of(key, BatchItemStatus.INVALID, violations.iterator().next().getMessage());
+    }
+}
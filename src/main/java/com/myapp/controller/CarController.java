@@ -1,14 +1,17 @@
 package com.myapp.controller;
 
-import com.google.common.collect.Lists;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myapp.controller.mapper.CarMapper;
 import com.myapp.datatransferobject.CarDTO;
 import com.myapp.domainobject.CarDO;
 import com.myapp.exception.ConstraintsViolationException;
 import com.myapp.exception.EntityNotFoundException;
 import com.myapp.service.car.CarService;
+import com.myapp.util.ETags;
+import com.myapp.util.NdjsonWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,24 +20,35 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("v1/cars")
 public class CarController {
 
+    static final String CATALOG_ETAG = "cars";
+
     private final CarService carService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public CarController(final CarService carService) {
+    public CarController(final CarService carService, final ObjectMapper objectMapper) {
         this.carService = carService;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Answers {@code If-None-Match} with 304 while the catalog is unchanged, without loading or serializing the car.
+     */
     @GetMapping("/{licensePlate}")
-    public CarDTO getCar(@Valid @PathVariable String licensePlate) throws EntityNotFoundException {
+    public CarDTO getCar(@Valid @PathVariable String licensePlate, WebRequest request) throws EntityNotFoundException {
+        if (request.checkNotModified(ETags.of(CATALOG_ETAG, carService.getCatalogVersion()))) {
+            return null;
+        }
         return CarMapper.makeCarDTO(carService.find(licensePlate));
     }
 
@@ -51,11 +65,28 @@ public class CarController {
         carService.delete(licensePlate);
     }
 
+    /**
+     * Answers {@code If-None-Match} with 304 while the catalog is unchanged, without reading or serializing the cars.
+     */
     @GetMapping
-    public List<CarDTO> findCars()
+    public List<CarDTO> findCars(WebRequest request)
             throws ConstraintsViolationException, EntityNotFoundException {
-        List<CarDO> cars = Lists.newArrayList(carService.findAll()).stream().
-                collect(Collectors.toList());
-        return CarMapper.makeCarDTOList(cars);
+        if (request.checkNotModified(ETags.of(CATALOG_ETAG, carService.getCatalogVersion()))) {
+            return null;
+        }
+        return CarMapper.makeCarDTOListFromSummaries(carService.findAllSummaries());
+    }
+
+    /**
+     * Exports all cars as newline delimited JSON while they are read from the database.
+     */
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCars() {
+        StreamingResponseBody body = outputStream -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream);
+            carService.streamAll(car -> writer.write(CarMapper.makeCarDTO(car)));
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
     }
 }
@@ -1,22 +1,47 @@
 package com.myapp.controller;
 
-import com.google.common.collect.Lists;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myapp.controller.mapper.DriverMapper;
+import com.myapp.dataaccessobject.DriverSummary;
+import com.myapp.datatransferobject.BatchItemResultDTO;
 import com.myapp.datatransferobject.DriverDTO;
+import com.myapp.datatransferobject.DriverLocationDTO;
+import com.myapp.datatransferobject.LookupResultDTO;
 import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.LocationUpdate;
 import com.myapp.domainvalue.OnlineStatus;
 import com.myapp.exception.CarAlreadyInUseException;
 import com.myapp.exception.ConstraintsViolationException;
+import com.myapp.exception.DriverOfflineException;
 import com.myapp.exception.EntityNotFoundException;
 import com.myapp.service.car.CarService;
+import com.myapp.service.driver.DriverChangeBroadcaster;
+import com.myapp.service.driver.DriverChangedEvent;
+import com.myapp.service.driver.DriverPresenceTracker;
 import com.myapp.service.driver.DriverService;
+import com.myapp.service.driver.DriverVersions;
+import com.myapp.util.ETags;
+import com.myapp.util.NdjsonWriter;
 
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -27,6 +52,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
@@ -37,23 +65,68 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("v1/drivers")
 public class DriverController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    static final String DRIVER_ETAG = "driver";
+
     private final DriverService driverService;
     private final CarService carService;
+    private final ObjectMapper objectMapper;
+    private final DriverChangeBroadcaster driverChangeBroadcaster;
+    private final DriverVersions driverVersions;
+    private final DriverPresenceTracker driverPresenceTracker;
 
 
     @Autowired
-    public DriverController(final DriverService driverService, final CarService carService) {
+    public DriverController(final DriverService driverService, final CarService carService, final ObjectMapper objectMapper,
+                            final DriverChangeBroadcaster driverChangeBroadcaster, final DriverVersions driverVersions,
+                            final DriverPresenceTracker driverPresenceTracker) {
         this.carService = carService;
         this.driverService = driverService;
+        this.objectMapper = objectMapper;
+        this.driverChangeBroadcaster = driverChangeBroadcaster;
+        this.driverVersions = driverVersions;
+        this.driverPresenceTracker = driverPresenceTracker;
     }
 
 
+    /**
+     * Answers {@code If-None-Match} with 304 while the driver is unchanged, without loading or serializing it.
+     */
     @GetMapping("/{driverId}")
-    public DriverDTO getDriver(@Valid @PathVariable long driverId) throws EntityNotFoundException {
+    public DriverDTO getDriver(@Valid @PathVariable long driverId, WebRequest request) throws EntityNotFoundException {
+        if (request.checkNotModified(ETags.of(DRIVER_ETAG, driverVersions.get(driverId)))) {
+            return null;
+        }
         return DriverMapper.makeDriverDTO(driverService.find(driverId));
     }
 
 
+    /**
+     * Resolves many drivers with one query, e.g. {@code ?ids=1,2,3}. Ids which don't exist are listed as missing.
+     */
+    @GetMapping(params = "ids")
+    public LookupResultDTO<DriverDTO> findDriversById(@RequestParam List<Long> ids) throws ConstraintsViolationException {
+        Map<Long, DriverSummary> drivers = driverService.findByIds(ids);
+        List<Long> missing = ids.stream()
+                .distinct()
+                .filter(driverId -> !drivers.containsKey(driverId))
+                .collect(Collectors.toList());
+        return LookupResultDTO.of(DriverMapper.makeDriverDTOListFromSummaries(drivers.values()), missing);
+    }
+
+
+    @GetMapping("/nearby")
+    public List<DriverDTO> findNearbyDrivers(@RequestParam double lat, @RequestParam double lon, @RequestParam double radiusMeters,
+                                             @RequestParam(required = false) OnlineStatus onlineStatus,
+                                             @RequestParam(defaultValue = "20") int limit)
+            throws ConstraintsViolationException {
+        return DriverMapper.makeDriverDTOList(driverService.findNearby(lat, lon, radiusMeters, onlineStatus, limit));
+    }
+
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public DriverDTO createDriver(@Valid @RequestBody DriverDTO driverDTO) throws ConstraintsViolationException {
@@ -68,12 +141,51 @@ public class DriverController {
     }
 
 
+    /**
+     * Reports the position of a driver. The result is {@code SUPPRESSED} if the ingestion filter dropped the update and
+     * {@code STALE} if a position with a later {@code timestamp} (default: now) is already known.
+     */
     @PutMapping("/{driverId}")
-    public void updateLocation(@Valid @PathVariable long driverId, @RequestParam double longitude, @RequestParam double latitude)
+    public BatchItemResultDTO updateLocation(@Valid @PathVariable long driverId, @RequestParam double longitude, @RequestParam double latitude,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime timestamp)
             throws ConstraintsViolationException, EntityNotFoundException {
-        driverService.updateLocation(driverId, longitude, latitude);
+        return BatchItemResultDTO.of(driverId, driverService.updateLocation(driverId, longitude, latitude, timestamp));
+    }
+
+    /**
+     * Applies many location reports at once, e.g. buffered by a gateway. Every item gets a result in request order;
+     * invalid or unknown items don't prevent the others from being written.
+     */
+    @PostMapping("/locations:batch")
+    public List<BatchItemResultDTO> updateLocations(@RequestBody List<DriverLocationDTO> locations)
+            throws ConstraintsViolationException {
+        List<BatchItemResultDTO> invalidItems = new ArrayList<>(locations.size());
+        List<LocationUpdate> updates = new ArrayList<>(locations.size());
+        for (DriverLocationDTO location : locations) {
+            BatchItemResultDTO invalid = null;
+            if (location.getDriverId() == null) {
+                invalid = BatchItemResultDTO.of(null, BatchItemStatus.INVALID, "Driver id can not be null!");
+            } else {
+                try {
+                    updates.add(DriverMapper.makeLocationUpdate(location));
+                } catch (IllegalArgumentException e) {
+                    invalid = BatchItemResultDTO.of(location.getDriverId(), BatchItemStatus.INVALID, e.getMessage());
+                }
+            }
+            invalidItems.add(invalid);
+        }
+
+        Iterator<BatchItemStatus> statuses = driverService.updateLocations(updates).iterator();
+
+        List<BatchItemResultDTO> results = new ArrayList<>(locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            BatchItemResultDTO invalid = invalidItems.get(i);
+            results.add(invalid != null ? invalid : BatchItemResultDTO.of(locations.get(i).getDriverId(), statuses.next()));
+        }
+        return results;
     }
 
+
     @PutMapping("/{driverId}/car/{licensePlate}")
     public void selectCar(@Valid @PathVariable long driverId, @PathVariable String licensePlate)
             throws ConstraintsViolationException, EntityNotFoundException, CarAlreadyInUseException {
@@ -88,22 +200,135 @@ public class DriverController {
     }
 
 
+    /**
+     * Sets the driver online. It is set offline automatically unless it sends heartbeats.
+     */
+    @PutMapping("/{driverId}/online")
+    public void goOnline(@Valid @PathVariable long driverId) throws EntityNotFoundException {
+        driverPresenceTracker.online(driverId);
+    }
+
+
+    @PutMapping("/{driverId}/offline")
+    public void goOffline(@Valid @PathVariable long driverId) throws EntityNotFoundException {
+        driverPresenceTracker.offline(driverId);
+    }
+
+
+    /**
+     * Keeps an online driver online; answers 409 once the driver has timed out and has to go online again.
+     */
+    @PutMapping("/{driverId}/heartbeat")
+    public void heartbeat(@Valid @PathVariable long driverId) throws DriverOfflineException {
+        driverPresenceTracker.heartbeat(driverId);
+    }
+
+
+    /**
+     * Returns one keyset page of the active drivers inside the area, ordered by id, like {@link #findDrivers}.
+     */
+    @GetMapping("/area")
+    public ResponseEntity<List<DriverDTO>> findDriversInArea(@RequestParam double minLat, @RequestParam double minLon,
+                                                             @RequestParam double maxLat, @RequestParam double maxLon,
+                                                             @RequestParam(required = false) OnlineStatus onlineStatus,
+                                                             @RequestParam(required = false) Long afterId,
+                                                             @RequestParam(defaultValue = "100") int limit)
+            throws ConstraintsViolationException {
+
+        List<DriverSummary> drivers = driverService.findInArea(makeBoundingBox(minLat, minLon, maxLat, maxLon), onlineStatus, afterId, limit);
+        return withNextCursor(drivers, limit);
+    }
+
+
+    /**
+     * Returns one keyset page of drivers ordered by id. When the page is full, the id to pass as {@code afterId}
+     * for the next page is sent in the {@value #NEXT_CURSOR_HEADER} header.
+     */
     @GetMapping
-    public List<DriverDTO> findDrivers(@RequestParam(required = false) OnlineStatus onlineStatus,
-                                       @RequestParam(required = false) String username,
-                                       @RequestParam(required = false) Boolean deleted)
-            throws ConstraintsViolationException, EntityNotFoundException {
+    public ResponseEntity<List<DriverDTO>> findDrivers(@RequestParam(required = false) OnlineStatus onlineStatus,
+                                                       @RequestParam(required = false) String username,
+                                                       @RequestParam(required = false) Boolean deleted,
+                                                       @RequestParam(required = false) Long afterId,
+                                                       @RequestParam(defaultValue = "100") int limit)
+            throws ConstraintsViolationException {
+
+        List<DriverSummary> drivers = driverService.findDrivers(onlineStatus, username, deleted, afterId, limit);
+        return withNextCursor(drivers, limit);
+    }
+
+
+    private static ResponseEntity<List<DriverDTO>> withNextCursor(List<DriverSummary> drivers, int limit) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!drivers.isEmpty() && drivers.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(drivers.get(drivers.size() - 1).id()));
+        }
+        return response.body(DriverMapper.makeDriverDTOListFromSummaries(drivers));
+    }
+
+
+    /**
+     * Exports all drivers matching the filters as newline delimited JSON while they are read from the database.
+     */
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDrivers(@RequestParam(required = false) OnlineStatus onlineStatus,
+                                                               @RequestParam(required = false) String username,
+                                                               @RequestParam(required = false) Boolean deleted) {
+        StreamingResponseBody body = outputStream -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream);
+            driverService.streamDrivers(onlineStatus, username, deleted, driver -> writer.write(DriverMapper.makeDriverDTO(driver)));
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
+    }
+
+
+    /**
+     * Pushes location, car and deletion changes of drivers as server-sent events named {@code driver}, optionally
+     * only those inside a bounding box. A driver leaving the box is reported once with its new position. Changes a
+     * slow client hasn't received yet are coalesced to the latest per driver; the stream ends after 30 minutes
+     * and the client should reconnect.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Double minLat, @RequestParam(required = false) Double minLon,
+                                    @RequestParam(required = false) Double maxLat, @RequestParam(required = false) Double maxLon)
+            throws ConstraintsViolationException {
+        BoundingBox boundingBox = makeBoundingBox(minLat, minLon, maxLat, maxLon);
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        DriverChangeBroadcaster.Subscription subscription = driverChangeBroadcaster.subscribe(boundingBox, events -> {
+            try {
+                if (events.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                    return;
+                }
+                for (DriverChangedEvent event : events) {
+                    emitter.send(SseEmitter.event().name("driver").data(DriverMapper.makeDriverChangeDTO(event), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | RuntimeException e) {
+                // the broadcaster drops the subscriber, the emitter has to end the response
+                emitter.completeWithError(e);
+                throw e;
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
 
-        List<DriverDO> drivers = Lists.newArrayList(driverService.findAll());
-        if (onlineStatus != null) {
-            drivers = drivers.stream().filter(driver -> driver.getOnlineStatus() == onlineStatus).collect(Collectors.toList());
+    private static BoundingBox makeBoundingBox(Double minLat, Double minLon, Double maxLat, Double maxLon)
+            throws ConstraintsViolationException {
+        long given = Stream.of(minLat, minLon, maxLat, maxLon).filter(Objects::nonNull).count();
+        if (given == 0) {
+            return null;
         }
-        if (username != null) {
-            drivers = drivers.stream().filter(driver -> driver.getUsername().equals(username)).collect(Collectors.toList());
+        if (given < 4) {
+            throw new ConstraintsViolationException("minLat, minLon, maxLat and maxLon must be given together");
         }
-        if (deleted != null) {
-            drivers = drivers.stream().filter(driver -> driver.getDeleted().equals(deleted)).collect(Collectors.toList());
+        try {
+            return new BoundingBox(minLat, minLon, maxLat, maxLon);
+        } catch (IllegalArgumentException e) {
+            throw new ConstraintsViolationException(e.getMessage());
         }
-        return DriverMapper.makeDriverDTOList(drivers);
     }
 }
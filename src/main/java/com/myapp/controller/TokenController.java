@@ -0,0 +1,37 @@
+package com.myapp.controller;
+
+import com.myapp.datatransferobject.TokenDTO;
+import com.myapp.security.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+
+/**
+ * Exchanges the credentials of the request, usually HTTP Basic, for a short-lived bearer token, which clients send
+ * with the following requests instead of the password.
+ */
+@RestController
+@RequestMapping("v1/tokens")
+public class TokenController {
+
+    private final TokenService tokenService;
+
+
+    @Autowired
+    public TokenController(final TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public TokenDTO createToken(Authentication authentication) {
+        TokenService.Token token = tokenService.issue(authentication);
+        return TokenDTO.bearer(token.getValue(), token.getExpiresAt());
+    }
+}
@@ -1,5 +1,7 @@
 package com.myapp.controller.mapper;
 
+import com.myapp.dataaccessobject.CarSummary;
+import com.myapp.dataaccessobject.DriverSummary;
 import com.myapp.datatransferobject.CarDTO;
 import com.myapp.domainobject.CarDO;
 
@@ -26,6 +28,23 @@ public class CarMapper {
         return carDTOBuilder.build();
     }
 
+    public static CarDTO makeCarDTO(CarSummary car) {
+        CarDTO.CarDTOBuilder carDTOBuilder = new CarDTO.CarDTOBuilder()
+                .setSeatCount(car.seatCount())
+                .setRating(car.rating())
+                .setLicensePlate(car.licensePlate())
+                .setId(car.id())
+                .setConvertible(car.convertible())
+                .setEngineType(car.engineType())
+                .setManufacturer(car.manufacturer());
+
+        DriverSummary driver = car.driver();
+        if (driver != null) {
+            carDTOBuilder.setDriver(DriverMapper.makeDriverDTO(driver));
+        }
+        return carDTOBuilder.build();
+    }
+
     public static CarDO makeCarDO(CarDTO carDTO) {
         return new CarDO(carDTO.getLicensePlate(), carDTO.getSeatCount(), carDTO.isConvertible(), carDTO.getRating(), carDTO.getEngineType(), carDTO.getManufacturer());
     }
@@ -36,4 +55,11 @@ public class CarMapper {
                 .map(CarMapper::makeCarDTO)
                 .collect(Collectors.toList());
     }
+
+    public static List<CarDTO> makeCarDTOListFromSummaries(Collection<CarSummary> cars)
+    {
+        return cars.stream()
+                .map(CarMapper::makeCarDTO)
+                .collect(Collectors.toList());
+    }
 }
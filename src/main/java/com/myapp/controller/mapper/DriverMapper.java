@@ -1,8 +1,14 @@
 package com.myapp.controller.mapper;
 
+import com.myapp.dataaccessobject.DriverSummary;
+import com.myapp.datatransferobject.DriverChangeDTO;
 import com.myapp.datatransferobject.DriverDTO;
+import com.myapp.datatransferobject.DriverLocationDTO;
 import com.myapp.domainobject.DriverDO;
 import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.LocationUpdate;
+import com.myapp.service.driver.DriverChangedEvent;
+import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -31,10 +37,58 @@ public class DriverMapper
     }
 
 
+    public static DriverDTO makeDriverDTO(DriverSummary driver)
+    {
+        return DriverDTO.newBuilder()
+            .setId(driver.id())
+            .setPassword(driver.password())
+            .setUsername(driver.username())
+            .setCoordinate(driver.coordinate())
+            .createDriverDTO();
+    }
+
+
     public static List<DriverDTO> makeDriverDTOList(Collection<DriverDO> drivers)
     {
         return drivers.stream()
             .map(DriverMapper::makeDriverDTO)
             .collect(Collectors.toList());
     }
+
+
+    public static List<DriverDTO> makeDriverDTOListFromSummaries(Collection<DriverSummary> drivers)
+    {
+        return drivers.stream()
+            .map(DriverMapper::makeDriverDTO)
+            .collect(Collectors.toList());
+    }
+
+
+    /**
+     * @throws IllegalArgumentException if the position is missing or out of range.
+     */
+    public static LocationUpdate makeLocationUpdate(DriverLocationDTO driverLocationDTO)
+    {
+        if (driverLocationDTO.getLatitude() == null || driverLocationDTO.getLongitude() == null)
+        {
+            throw new IllegalArgumentException("Latitude and longitude can not be null!");
+        }
+        ZonedDateTime timestamp = driverLocationDTO.getTimestamp() != null ? driverLocationDTO.getTimestamp() : ZonedDateTime.now();
+        return new LocationUpdate(
+            driverLocationDTO.getDriverId(),
+            new GeoCoordinate(driverLocationDTO.getLatitude(), driverLocationDTO.getLongitude()),
+            timestamp);
+    }
+
+
+    public static DriverChangeDTO makeDriverChangeDTO(DriverChangedEvent event)
+    {
+        return DriverChangeDTO.of(
+            event.getDriverId(),
+            event.getType().name(),
+            event.getCoordinate(),
+            event.getOnlineStatus(),
+            event.getLicensePlate(),
+            event.getTimestamp());
+    }
 }
@@ -0,0 +1,7 @@
+package com.myapp.dataaccessobject;
+
+/**
+ * Read-only projection of a driver and the license plate of the car the driver has selected.
+ */
+public record CarAssignment(Long driverId, String licensePlate) {
+}
@@ -1,9 +1,57 @@
 package com.myapp.dataaccessobject;
 
 import com.myapp.domainobject.CarDO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The driver of a car is the inverse side of a one-to-one, which Hibernate can't proxy: loading a car without it costs
+ * one more select per car. Every query returning cars therefore fetches the driver with it.
+ */
 public interface CarRepository extends CrudRepository<CarDO, String> {
 
+    @EntityGraph(attributePaths = "driver")
     CarDO findByLicensePlate(String licensePlate);
+
+    @Override
+    @EntityGraph(attributePaths = "driver")
+    Iterable<CarDO> findAll();
+
+    @EntityGraph(attributePaths = "driver")
+    List<CarDO> findByLicensePlateIn(Collection<String> licensePlates);
+
+    @Query("select new com.myapp.dataaccessobject.CarAssignment(d.id, c.licensePlate) from DriverDO d join d.car c")
+    List<CarAssignment> findCarAssignments();
+
+    @Query("select c.licensePlate from CarDO c where c.licensePlate in :licensePlates")
+    Set<String> findExistingLicensePlates(@Param("licensePlates") Collection<String> licensePlates);
+
+    /**
+     * Reads all cars with their drivers as projections, ordered by id. Only the shown columns are selected and no
+     * entities are created, so there is nothing to dirty-check or flush.
+     */
+    @Query("select new com.myapp.dataaccessobject.CarSummary(c.id, c.licensePlate, c.seatCount, c.convertible, c.rating,"
+            + " c.engineType, c.manufacturer, d.id, d.username, d.password, d.coordinate)"
+            + " from CarDO c left join c.driver d order by c.id")
+    List<CarSummary> findAllSummaries();
+
+    /**
+     * Scrolls over all cars with a database cursor. Must be consumed and closed inside a transaction.
+     */
+    @Query("select c from CarDO c left join fetch c.driver order by c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CarDO> streamAll();
 }
@@ -0,0 +1,29 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.GeoCoordinate;
+
+/**
+ * Read-only projection of a car and its driver, read with one outer join. The driver columns are null if nobody
+ * drives the car.
+ */
+public record CarSummary(
+        Long id,
+        String licensePlate,
+        int seatCount,
+        Boolean convertible,
+        int rating,
+        EngineType engineType,
+        String manufacturer,
+        Long driverId,
+        String driverUsername,
+        String driverPassword,
+        GeoCoordinate driverCoordinate) {
+
+    /**
+     * @return the driver of the car, null if there is none
+     */
+    public DriverSummary driver() {
+        return driverId == null ? null : new DriverSummary(driverId, driverUsername, driverPassword, driverCoordinate);
+    }
+}
@@ -1,16 +1,147 @@
 package com.myapp.dataaccessobject;
 
+import com.myapp.domainobject.CarDO;
 import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.GeoPolygon;
 import com.myapp.domainvalue.OnlineStatus;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 
 /**
  * Database Access Object for driver table.
  * <p/>
  */
-public interface DriverRepository extends CrudRepository<DriverDO, Long>
+public interface DriverRepository extends CrudRepository<DriverDO, Long>, DriverRepositoryCustom
 {
 
+    /**
+     * Haversine distance in meters between the driver {@code d} and the parameters {@code :latitude} and
+     * {@code :longitude}, as SQL. H2 has no spatial distance function.
+     */
+    String DISTANCE_METERS_SQL = "2 * 6371008.8 * ASIN(LEAST(1, SQRT(POWER(SIN(RADIANS(d.latitude - :latitude) / 2), 2)"
+        + " + COS(RADIANS(:latitude)) * COS(RADIANS(d.latitude)) * POWER(SIN(RADIANS(d.longitude - :longitude) / 2), 2))))";
+
+    /**
+     * Condition on the spatial index of the {@code location} column: the driver lies in the bounding box of the
+     * {@code :geometry} parameter, a WKT string.
+     */
+    String LOCATION_IN_ENVELOPE_SQL = "d.location && CAST(:geometry AS GEOMETRY)";
+
     List<DriverDO> findByOnlineStatus(OnlineStatus onlineStatus);
+
+    @Query("select d.onlineStatus from DriverDO d where d.id = :driverId and d.deleted = false")
+    Optional<OnlineStatus> findOnlineStatusOfActiveDriver(@Param("driverId") Long driverId);
+
+    /**
+     * Ids of the active drivers with the status, read from the {@code idx_driver_online_status_deleted} index only.
+     */
+    @Query("select d.id from DriverDO d where d.onlineStatus = :onlineStatus and d.deleted = false")
+    List<Long> findIdsByOnlineStatus(@Param("onlineStatus") OnlineStatus onlineStatus);
+
+    @Query("select d.username from DriverDO d where d.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+
+    /**
+     * Reads at most {@code limit} active drivers inside the area, ordered by id, with a range scan of the
+     * {@code idx_driver_location} index.
+     */
+    default List<DriverDO> findInBoundingBox(BoundingBox boundingBox, int limit)
+    {
+        return findPage(
+            Specification.where(DriverSpecifications.inBoundingBox(boundingBox)).and(DriverSpecifications.isDeleted(false)),
+            limit);
+    }
+
+    /**
+     * Reads at most {@code limit} active drivers within the distance of the center, ordered by id. The spatial index
+     * narrows the drivers down to the bounding box of the circle, only those are checked for the exact distance.
+     */
+    default List<DriverDO> findWithinDistance(GeoCoordinate center, double radiusMeters, int limit)
+    {
+        return findWithinDistance(
+            BoundingBox.around(center, radiusMeters).toWkt(), center.getLatitude(), center.getLongitude(), radiusMeters, limit);
+    }
+
+    @Query(value = "select d.* from driver d where " + LOCATION_IN_ENVELOPE_SQL + " and d.deleted = false"
+        + " and " + DISTANCE_METERS_SQL + " <= :radiusMeters order by d.id limit :limit", nativeQuery = true)
+    List<DriverDO> findWithinDistance(
+        @Param("geometry") String envelope,
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude,
+        @Param("radiusMeters") double radiusMeters,
+        @Param("limit") int limit);
+
+
+    /**
+     * Reads the active drivers inside the polygon, ordered by id. The spatial index narrows the drivers down to the
+     * bounding box of the polygon, H2 can't test the polygon itself, so the candidates are checked here.
+     */
+    default List<DriverDO> findIntersecting(GeoPolygon polygon)
+    {
+        return findInEnvelope(polygon.toWkt()).stream()
+            .filter(driver -> polygon.contains(driver.getCoordinate()))
+            .collect(Collectors.toList());
+    }
+
+    @Query(value = "select d.* from driver d where " + LOCATION_IN_ENVELOPE_SQL + " and d.deleted = false order by d.id",
+        nativeQuery = true)
+    List<DriverDO> findInEnvelope(@Param("geometry") String geometry);
+
+    /**
+     * Moves the driver in one statement, without loading it: only the position and its timestamp are written. A
+     * position reported before the stored one is not written.
+     *
+     * @return 1 if the driver exists and has no newer position, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update DriverDO d set d.coordinate.latitude = :latitude, d.coordinate.longitude = :longitude,"
+        + " d.dateCoordinateUpdated = :timestamp where d.id = :driverId"
+        + " and (d.dateCoordinateUpdated is null or d.dateCoordinateUpdated <= :timestamp)")
+    int updateLocation(
+        @Param("driverId") long driverId,
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude,
+        @Param("timestamp") ZonedDateTime timestamp);
+
+    /**
+     * Sets the online status of many active drivers in one statement, without loading them.
+     *
+     * @return number of updated drivers
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update DriverDO d set d.onlineStatus = :onlineStatus where d.id in :driverIds and d.deleted = false")
+    int updateOnlineStatus(@Param("driverIds") Collection<Long> driverIds, @Param("onlineStatus") OnlineStatus onlineStatus);
+
+    /**
+     * Assigns the car to the driver in one statement, if the driver is active and online and no driver has the car yet.
+     * The unique constraint on the car column catches concurrent assignments which both pass the check.
+     *
+     * @return 1 if the car was assigned, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update DriverDO d set d.car = :car"
+        + " where d.id = :driverId and d.deleted = false and d.onlineStatus = com.myapp.domainvalue.OnlineStatus.ONLINE"
+        + " and not exists (select o.id from DriverDO o where o.car = :car)")
+    int assignCar(@Param("driverId") long driverId, @Param("car") CarDO car);
+
+    /**
+     * Releases the car in one statement, if the driver has it.
+     *
+     * @return 1 if the car was released, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update DriverDO d set d.car = null where d.id = :driverId and d.car = :car")
+    int releaseCar(@Param("driverId") long driverId, @Param("car") CarDO car);
 }
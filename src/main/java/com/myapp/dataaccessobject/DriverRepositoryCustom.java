@@ -0,0 +1,33 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.domainobject.DriverDO;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Queries on the driver table which can't be expressed as derived queries.
+ * <p/>
+ */
+public interface DriverRepositoryCustom
+{
+
+    /**
+     * Reads at most {@code limit} drivers matching the specification, ordered by id. Combined with
+     * {@link DriverSpecifications#idGreaterThan(Long)} this is a keyset page: no offset, no count query.
+     */
+    List<DriverDO> findPage(Specification<DriverDO> specification, int limit);
+
+
+    /**
+     * Like {@link #findPage}, but reads only the columns of a {@link DriverSummary} instead of managed entities.
+     */
+    List<DriverSummary> findSummaryPage(Specification<DriverDO> specification, int limit);
+
+
+    /**
+     * Scrolls over all drivers matching the specification, ordered by id, with a read-only database cursor. Must be
+     * consumed and closed inside a transaction.
+     */
+    Stream<DriverDO> stream(Specification<DriverDO> specification);
+}
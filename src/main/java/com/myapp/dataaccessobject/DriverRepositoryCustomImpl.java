@@ -0,0 +1,78 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.domainobject.DriverDO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+public class DriverRepositoryCustomImpl implements DriverRepositoryCustom
+{
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+
+    @Override
+    public List<DriverDO> findPage(Specification<DriverDO> specification, int limit)
+    {
+        return entityManager.createQuery(orderedById(specification))
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+
+    @Override
+    public List<DriverSummary> findSummaryPage(Specification<DriverDO> specification, int limit)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DriverSummary> query = builder.createQuery(DriverSummary.class);
+        Root<DriverDO> root = query.from(DriverDO.class);
+        query.select(builder.construct(DriverSummary.class,
+            root.get("id"), root.get("username"), root.get("password"), root.get("coordinate")));
+        restrictAndOrder(query, root, builder, specification);
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+
+    @Override
+    public Stream<DriverDO> stream(Specification<DriverDO> specification)
+    {
+        return entityManager.createQuery(orderedById(specification))
+            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+
+    private CriteriaQuery<DriverDO> orderedById(Specification<DriverDO> specification)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DriverDO> query = builder.createQuery(DriverDO.class);
+        Root<DriverDO> root = query.from(DriverDO.class);
+        restrictAndOrder(query, root, builder, specification);
+        return query;
+    }
+
+
+    private static void restrictAndOrder(
+        CriteriaQuery<?> query, Root<DriverDO> root, CriteriaBuilder builder, Specification<DriverDO> specification)
+    {
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null)
+        {
+            query.where(predicate);
+        }
+        query.orderBy(builder.asc(root.get("id")));
+    }
+}
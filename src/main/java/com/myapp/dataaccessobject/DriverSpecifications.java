@@ -0,0 +1,72 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.OnlineStatus;
+import jakarta.persistence.criteria.Path;
+import java.util.Collection;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for driver queries. Every factory returns {@code null} for a missing value, which
+ * {@link Specification#and(Specification)} treats as "no restriction".
+ * <p/>
+ */
+public final class DriverSpecifications
+{
+
+    private DriverSpecifications()
+    {
+    }
+
+
+    public static Specification<DriverDO> hasOnlineStatus(OnlineStatus onlineStatus)
+    {
+        return onlineStatus == null ? null : (root, query, builder) -> builder.equal(root.get("onlineStatus"), onlineStatus);
+    }
+
+
+    public static Specification<DriverDO> hasUsername(String username)
+    {
+        return username == null ? null : (root, query, builder) -> builder.equal(root.get("username"), username);
+    }
+
+
+    public static Specification<DriverDO> isDeleted(Boolean deleted)
+    {
+        return deleted == null ? null : (root, query, builder) -> builder.equal(root.get("deleted"), deleted);
+    }
+
+
+    public static Specification<DriverDO> idIn(Collection<Long> ids)
+    {
+        return ids == null ? null : (root, query, builder) -> root.get("id").in(ids);
+    }
+
+
+    public static Specification<DriverDO> idGreaterThan(Long afterId)
+    {
+        return afterId == null ? null : (root, query, builder) -> builder.greaterThan(root.get("id"), afterId);
+    }
+
+
+    /**
+     * Drivers positioned inside the area, as range conditions on the indexed latitude and longitude columns. An area
+     * crossing the antimeridian matches both longitude ranges.
+     */
+    public static Specification<DriverDO> inBoundingBox(BoundingBox boundingBox)
+    {
+        return boundingBox == null ? null : (root, query, builder) ->
+        {
+            Path<Double> latitude = root.get("coordinate").get("latitude");
+            Path<Double> longitude = root.get("coordinate").get("longitude");
+            return builder.and(
+                builder.between(latitude, boundingBox.getMinLatitude(), boundingBox.getMaxLatitude()),
+                boundingBox.crossesAntimeridian()
+                    ? builder.or(
+                        builder.greaterThanOrEqualTo(longitude, boundingBox.getMinLongitude()),
+                        builder.lessThanOrEqualTo(longitude, boundingBox.getMaxLongitude()))
+                    : builder.between(longitude, boundingBox.getMinLongitude(), boundingBox.getMaxLongitude()));
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.domainvalue.GeoCoordinate;
+
+/**
+ * Read-only projection of a driver with the columns the list endpoints show. Unlike {@link com.myapp.domainobject.DriverDO}
+ * it isn't managed by the persistence context, so it has no dirty-checking snapshot.
+ *
+ * @param coordinate - null if the driver never reported a position
+ */
+public record DriverSummary(Long id, String username, String password, GeoCoordinate coordinate)
+{
+
+    public DriverSummary withCoordinate(final GeoCoordinate coordinate)
+    {
+        return new DriverSummary(id, username, password, coordinate);
+    }
+
+}
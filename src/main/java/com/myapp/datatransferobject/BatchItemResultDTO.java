@@ -0,0 +1,46 @@
+package com.myapp.datatransferobject;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.myapp.domainvalue.BatchItemStatus;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+
+    private final String key;
+
+    private final BatchItemStatus status;
+
+    private final String message;
+
+
+    private BatchItemResultDTO(String key, BatchItemStatus status, String message) {
+        this.key = key;
+        this.status = status;
+        this.message = message;
+    }
+
+
+    public static BatchItemResultDTO of(Object key, BatchItemStatus status) {
+        return of(key, status, null);
+    }
+
+
+    public static BatchItemResultDTO of(Object key, BatchItemStatus status, String message) {
+        return new BatchItemResultDTO(key == null ? null : String.valueOf(key), status, message);
+    }
+
+
+    public String getKey() {
+        return key;
+    }
+
+
+    public BatchItemStatus getStatus() {
+        return status;
+    }
+
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,69 @@
+package com.myapp.datatransferobject;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.OnlineStatus;
+import java.time.ZonedDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DriverChangeDTO {
+
+    private final long driverId;
+
+    private final String type;
+
+    private final GeoCoordinate coordinate;
+
+    private final OnlineStatus onlineStatus;
+
+    private final String licensePlate;
+
+    private final ZonedDateTime timestamp;
+
+
+    private DriverChangeDTO(long driverId, String type, GeoCoordinate coordinate, OnlineStatus onlineStatus,
+                            String licensePlate, ZonedDateTime timestamp) {
+        this.driverId = driverId;
+        this.type = type;
+        this.coordinate = coordinate;
+        this.onlineStatus = onlineStatus;
+        this.licensePlate = licensePlate;
+        this.timestamp = timestamp;
+    }
+
+
+    public static DriverChangeDTO of(long driverId, String type, GeoCoordinate coordinate, OnlineStatus onlineStatus,
+                                     String licensePlate, ZonedDateTime timestamp) {
+        return new DriverChangeDTO(driverId, type, coordinate, onlineStatus, licensePlate, timestamp);
+    }
+
+
+    public long getDriverId() {
+        return driverId;
+    }
+
+
+    public String getType() {
+        return type;
+    }
+
+
+    public GeoCoordinate getCoordinate() {
+        return coordinate;
+    }
+
+
+    public OnlineStatus getOnlineStatus() {
+        return onlineStatus;
+    }
+
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+
+    public ZonedDateTime getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,94 @@
+package com.myapp.datatransferobject;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.ZonedDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DriverLocationDTO {
+
+    @NotNull(message = "Driver id can not be null!")
+    private Long driverId;
+
+    @NotNull(message = "Latitude can not be null!")
+    private Double latitude;
+
+    @NotNull(message = "Longitude can not be null!")
+    private Double longitude;
+
+    private ZonedDateTime timestamp;
+
+
+    private DriverLocationDTO() {
+    }
+
+
+    private DriverLocationDTO(Long driverId, Double latitude, Double longitude, ZonedDateTime timestamp) {
+        this.driverId = driverId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timestamp = timestamp;
+    }
+
+
+    public static DriverLocationDTOBuilder newBuilder() {
+        return new DriverLocationDTOBuilder();
+    }
+
+
+    public Long getDriverId() {
+        return driverId;
+    }
+
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+
+    public ZonedDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public static class DriverLocationDTOBuilder {
+        private Long driverId;
+        private Double latitude;
+        private Double longitude;
+        private ZonedDateTime timestamp;
+
+
+        public DriverLocationDTOBuilder setDriverId(Long driverId) {
+            this.driverId = driverId;
+            return this;
+        }
+
+
+        public DriverLocationDTOBuilder setLatitude(Double latitude) {
+            this.latitude = latitude;
+            return this;
+        }
+
+
+        public DriverLocationDTOBuilder setLongitude(Double longitude) {
+            this.longitude = longitude;
+            return this;
+        }
+
+
+        public DriverLocationDTOBuilder setTimestamp(ZonedDateTime timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+
+        public DriverLocationDTO createDriverLocationDTO() {
+            return new DriverLocationDTO(driverId, latitude, longitude, timestamp);
+        }
+    }
+}
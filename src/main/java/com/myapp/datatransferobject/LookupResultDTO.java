@@ -0,0 +1,39 @@
+package com.myapp.datatransferobject;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Result of a multi-get: the found items and the requested keys which were not found, both in request order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LookupResultDTO<T> {
+
+    private final List<T> found;
+
+    private final List<String> missing;
+
+
+    private LookupResultDTO(List<T> found, List<String> missing) {
+        this.found = found;
+        this.missing = missing;
+    }
+
+
+    public static <T> LookupResultDTO<T> of(List<T> found, Collection<?> missing) {
+        return new LookupResultDTO<>(found, missing.stream().map(String::valueOf).collect(Collectors.toList()));
+    }
+
+
+    public List<T> getFound() {
+        return found;
+    }
+
+
+    public List<String> getMissing() {
+        return missing;
+    }
+}
@@ -0,0 +1,44 @@
+package com.myapp.datatransferobject;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenDTO {
+
+    public static final String BEARER = "Bearer";
+
+    private final String token;
+
+    private final String tokenType;
+
+    private final Instant expiresAt;
+
+
+    private TokenDTO(String token, String tokenType, Instant expiresAt) {
+        this.token = token;
+        this.tokenType = tokenType;
+        this.expiresAt = expiresAt;
+    }
+
+
+    public static TokenDTO bearer(String token, Instant expiresAt) {
+        return new TokenDTO(token, BEARER, expiresAt);
+    }
+
+
+    public String getToken() {
+        return token;
+    }
+
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -9,8 +9,10 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotNull;
@@ -24,7 +26,8 @@ import java.time.ZonedDateTime;
 public class CarDO {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_seq")
+    @SequenceGenerator(name = "car_seq", sequenceName = "car_seq", initialValue = 1000, allocationSize = 50)
     @Column(name = "CAR_ID")
     private Long id;
 
@@ -76,6 +79,10 @@ public class CarDO {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public ZonedDateTime getDateCreated() {
         return dateCreated;
     }
@@ -11,9 +11,12 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotNull;
@@ -23,12 +26,17 @@ import org.springframework.format.annotation.DateTimeFormat;
 @Entity
 @Table(
         name = "driver",
-        uniqueConstraints = @UniqueConstraint(name = "uc_username", columnNames = {"username"})
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uc_username", columnNames = {"username"}),
+                @UniqueConstraint(name = "uc_car", columnNames = {"CAR_ID"})
+        },
+        indexes = @Index(name = "idx_driver_location", columnList = "latitude, longitude")
 )
 public class DriverDO {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "driver_seq")
+    @SequenceGenerator(name = "driver_seq", sequenceName = "driver_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -119,9 +127,19 @@ public class DriverDO {
     }
 
 
+    public ZonedDateTime getDateCoordinateUpdated() {
+        return dateCoordinateUpdated;
+    }
+
+
     public void setCoordinate(GeoCoordinate coordinate) {
+        setCoordinate(coordinate, ZonedDateTime.now());
+    }
+
+
+    public void setCoordinate(GeoCoordinate coordinate, ZonedDateTime dateCoordinateUpdated) {
         this.coordinate = coordinate;
-        this.dateCoordinateUpdated = ZonedDateTime.now();
+        this.dateCoordinateUpdated = dateCoordinateUpdated;
     }
 
     public CarDO getCar() {
@@ -0,0 +1,9 @@
+package com.myapp.domainvalue;
+
+/**
+ * Outcome of a single item of a batch request.
+ */
+public enum BatchItemStatus
+{
+    OK, INVALID, NOT_FOUND, DUPLICATE, SUPPRESSED, STALE, SUPERSEDED
+}
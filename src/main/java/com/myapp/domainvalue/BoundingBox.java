@@ -0,0 +1,146 @@
+package com.myapp.domainvalue;
+
+import com.google.common.base.Preconditions;
+import java.math.BigDecimal;
+
+/**
+ * Rectangular area between two latitudes and two longitudes. If the minimum longitude is greater than the maximum
+ * longitude the box crosses the antimeridian.
+ */
+public class BoundingBox
+{
+
+    private final double minLatitude;
+
+    private final double minLongitude;
+
+    private final double maxLatitude;
+
+    private final double maxLongitude;
+
+
+    /**
+     * @throws IllegalArgumentException if a value is out of range or the minimum latitude is above the maximum.
+     */
+    public BoundingBox(final double minLatitude, final double minLongitude, final double maxLatitude, final double maxLongitude)
+    {
+        Preconditions.checkArgument(minLatitude >= -90 && maxLatitude <= 90, "latitudes must be between -90 and 90");
+        Preconditions.checkArgument(
+            Math.abs(minLongitude) <= 180 && Math.abs(maxLongitude) <= 180, "longitudes must be between -180 and 180");
+        Preconditions.checkArgument(minLatitude <= maxLatitude, "minimum latitude is higher than maximum latitude");
+        this.minLatitude = minLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLatitude = maxLatitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+
+    /**
+     * Smallest box containing the circle around the center. Near the poles it spans all longitudes.
+     *
+     * @throws IllegalArgumentException if the radius is negative.
+     */
+    public static BoundingBox around(final GeoCoordinate center, final double radiusMeters)
+    {
+        Preconditions.checkArgument(radiusMeters >= 0, "radius must not be negative");
+        double angularRadius = radiusMeters / GeoCoordinate.EARTH_RADIUS_METERS;
+        double latitudeDelta = Math.toDegrees(angularRadius);
+        double minLatitude = center.getLatitude() - latitudeDelta;
+        double maxLatitude = center.getLatitude() + latitudeDelta;
+        double sinLongitudeDelta = Math.sin(angularRadius) / Math.cos(Math.toRadians(center.getLatitude()));
+        if (minLatitude <= -90 || maxLatitude >= 90 || angularRadius >= Math.PI / 2 || sinLongitudeDelta >= 1)
+        {
+            return new BoundingBox(Math.max(-90, minLatitude), -180, Math.min(90, maxLatitude), 180);
+        }
+        double longitudeDelta = Math.toDegrees(Math.asin(sinLongitudeDelta));
+        double minLongitude = center.getLongitude() - longitudeDelta;
+        double maxLongitude = center.getLongitude() + longitudeDelta;
+        return new BoundingBox(
+            minLatitude,
+            minLongitude < -180 ? minLongitude + 360 : minLongitude,
+            maxLatitude,
+            maxLongitude > 180 ? maxLongitude - 360 : maxLongitude);
+    }
+
+
+    public boolean contains(final GeoCoordinate coordinate)
+    {
+        return contains(coordinate.getLatitude(), coordinate.getLongitude());
+    }
+
+
+    public boolean contains(final double latitude, final double longitude)
+    {
+        if (latitude < minLatitude || latitude > maxLatitude)
+        {
+            return false;
+        }
+        if (minLongitude <= maxLongitude)
+        {
+            return longitude >= minLongitude && longitude <= maxLongitude;
+        }
+        return longitude >= minLongitude || longitude <= maxLongitude;
+    }
+
+
+    public boolean crossesAntimeridian()
+    {
+        return minLongitude > maxLongitude;
+    }
+
+
+    /**
+     * @return the box as WKT polygon with longitudes as x, two polygons if it crosses the antimeridian
+     */
+    public String toWkt()
+    {
+        if (crossesAntimeridian())
+        {
+            return "MULTIPOLYGON((" + ring(minLongitude, 180) + "), (" + ring(-180, maxLongitude) + "))";
+        }
+        return "POLYGON(" + ring(minLongitude, maxLongitude) + ")";
+    }
+
+
+    private String ring(final double fromLongitude, final double toLongitude)
+    {
+        String south = format(minLatitude);
+        String north = format(maxLatitude);
+        String west = format(fromLongitude);
+        String east = format(toLongitude);
+        return "(" + west + " " + south + ", " + east + " " + south + ", " + east + " " + north + ", "
+            + west + " " + north + ", " + west + " " + south + ")";
+    }
+
+
+    static String format(final double degrees)
+    {
+        // WKT has no exponent notation
+        return BigDecimal.valueOf(degrees).toPlainString();
+    }
+
+
+    public double getMinLatitude()
+    {
+        return minLatitude;
+    }
+
+
+    public double getMinLongitude()
+    {
+        return minLongitude;
+    }
+
+
+    public double getMaxLatitude()
+    {
+        return maxLatitude;
+    }
+
+
+    public double getMaxLongitude()
+    {
+        return maxLongitude;
+    }
+
+}
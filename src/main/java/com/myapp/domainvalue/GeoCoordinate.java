@@ -7,6 +7,10 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import org.springframework.data.geo.Point;
 
+/**
+ * Position in degrees, stored in the {@code latitude} and {@code longitude} columns of the owning entity so the
+ * database can range-filter and index it.
+ */
 @Embeddable
 public class GeoCoordinate
 {
@@ -15,13 +19,19 @@ public class GeoCoordinate
     private static final int MIN_LATITUDE = -90;
     private static final int MAX_LONGITUDE = 180;
     private static final int MIN_LONGITUDE = -180;
-    @Column(name = "coordinate")
-    private final Point point;
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+    @Column(name = "latitude")
+    private final double latitude;
+
+    @Column(name = "longitude")
+    private final double longitude;
 
 
     protected GeoCoordinate()
     {
-        this.point = null;
+        this.latitude = 0;
+        this.longitude = 0;
     }
 
 
@@ -36,28 +46,62 @@ public class GeoCoordinate
         Preconditions.checkArgument(longitude >= MIN_LONGITUDE, "longitude is lower than min_longitude: " + MIN_LONGITUDE);
         Preconditions.checkArgument(longitude <= MAX_LONGITUDE, "longitude is higher than max_longitude: " + MAX_LONGITUDE);
 
-        this.point = new Point(longitude, latitude);
+        this.latitude = latitude;
+        this.longitude = longitude;
     }
 
 
     @JsonProperty
     public double getLatitude()
     {
-        return this.point.getY();
+        return this.latitude;
     }
 
 
+    /**
+     * @return a new point with the longitude as x and the latitude as y
+     */
     @JsonIgnore
     public Point getPoint()
     {
-        return this.point;
+        return new Point(this.longitude, this.latitude);
     }
 
 
     @JsonProperty
     public double getLongitude()
     {
-        return this.point.getX();
+        return this.longitude;
+    }
+
+
+    /**
+     * Great-circle distance to another coordinate.
+     *
+     * @param other - target coordinate
+     * @return distance in meters
+     */
+    public double distanceTo(final GeoCoordinate other)
+    {
+        return distanceInMeters(getLatitude(), getLongitude(), other.getLatitude(), other.getLongitude());
+    }
+
+
+    /**
+     * Haversine distance between two positions given in degrees. Works on primitives so that hot paths (e.g. the
+     * driver location index) don't have to allocate coordinates.
+     *
+     * @return distance in meters
+     */
+    public static double distanceInMeters(final double latitude1, final double longitude1, final double latitude2, final double longitude2)
+    {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double sinLatitude = Math.sin(deltaLatitude / 2);
+        double sinLongitude = Math.sin(deltaLongitude / 2);
+        double a = sinLatitude * sinLatitude
+            + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinLongitude * sinLongitude;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
     }
 
 
@@ -66,7 +110,8 @@ public class GeoCoordinate
     {
         final int prime = 31;
         int result = 1;
-        result = prime * result + ((this.point == null) ? 0 : this.point.hashCode());
+        result = prime * result + Double.hashCode(this.latitude);
+        result = prime * result + Double.hashCode(this.longitude);
         return result;
     }
 
@@ -87,25 +132,14 @@ public class GeoCoordinate
             return false;
         }
         final GeoCoordinate other = (GeoCoordinate) obj;
-        if (this.point == null)
-        {
-            if (other.point != null)
-            {
-                return false;
-            }
-        }
-        else if (!this.point.equals(other.point))
-        {
-            return false;
-        }
-        return true;
+        return Double.compare(this.latitude, other.latitude) == 0 && Double.compare(this.longitude, other.longitude) == 0;
     }
 
 
     @Override
     public String toString()
     {
-        return this.point.toString();
+        return "GeoCoordinate [latitude=" + this.latitude + ", longitude=" + this.longitude + "]";
     }
 
 }
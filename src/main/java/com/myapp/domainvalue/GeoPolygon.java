@@ -0,0 +1,77 @@
+package com.myapp.domainvalue;
+
+import com.google.common.base.Preconditions;
+import java.util.List;
+
+/**
+ * Simple polygon given by its vertices in degrees, with straight edges between them in the latitude/longitude plane.
+ * Polygons crossing the antimeridian are not supported.
+ */
+public class GeoPolygon
+{
+
+    private final double[] latitudes;
+
+    private final double[] longitudes;
+
+
+    /**
+     * @param vertices - at least three corners in order, the ring is closed implicitly
+     * @throws IllegalArgumentException if there are less than three vertices.
+     */
+    public GeoPolygon(final List<GeoCoordinate> vertices)
+    {
+        Preconditions.checkArgument(vertices.size() >= 3, "a polygon needs at least three vertices");
+        this.latitudes = new double[vertices.size()];
+        this.longitudes = new double[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++)
+        {
+            latitudes[i] = vertices.get(i).getLatitude();
+            longitudes[i] = vertices.get(i).getLongitude();
+        }
+    }
+
+
+    public boolean contains(final GeoCoordinate coordinate)
+    {
+        return coordinate != null && contains(coordinate.getLatitude(), coordinate.getLongitude());
+    }
+
+
+    /**
+     * Even-odd rule: a position is inside if a ray from it crosses the edges an odd number of times.
+     */
+    public boolean contains(final double latitude, final double longitude)
+    {
+        boolean inside = false;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++)
+        {
+            if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                && longitude < (longitudes[j] - longitudes[i]) * (latitude - latitudes[i]) / (latitudes[j] - latitudes[i]) + longitudes[i])
+            {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+
+    /**
+     * @return the polygon as closed WKT ring with longitudes as x
+     */
+    public String toWkt()
+    {
+        StringBuilder wkt = new StringBuilder("POLYGON((");
+        for (int i = 0; i <= latitudes.length; i++)
+        {
+            int vertex = i % latitudes.length;
+            if (i > 0)
+            {
+                wkt.append(", ");
+            }
+            wkt.append(BoundingBox.format(longitudes[vertex])).append(' ').append(BoundingBox.format(latitudes[vertex]));
+        }
+        return wkt.append("))").toString();
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.myapp.domainvalue;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A position reported by a driver at a given time.
+ */
+public class LocationUpdate
+{
+
+    private final long driverId;
+
+    private final GeoCoordinate coordinate;
+
+    private final ZonedDateTime timestamp;
+
+
+    public LocationUpdate(final long driverId, final GeoCoordinate coordinate, final ZonedDateTime timestamp)
+    {
+        this.driverId = driverId;
+        this.coordinate = coordinate;
+        this.timestamp = timestamp;
+    }
+
+
+    public long getDriverId()
+    {
+        return driverId;
+    }
+
+
+    public GeoCoordinate getCoordinate()
+    {
+        return coordinate;
+    }
+
+
+    public ZonedDateTime getTimestamp()
+    {
+        return timestamp;
+    }
+
+
+    /**
+     * @return the more recent of both updates, this one on a tie.
+     */
+    public LocationUpdate latest(final LocationUpdate other)
+    {
+        return other.timestamp.isAfter(timestamp) ? other : this;
+    }
+
+}
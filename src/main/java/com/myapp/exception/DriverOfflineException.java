@@ -0,0 +1,15 @@
+package com.myapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT, reason = "Driver is offline, go online first.")
+public class DriverOfflineException extends Exception
+{
+    static final long serialVersionUID = -5387516993224229948L;
+
+    public DriverOfflineException(String message)
+    {
+        super(message);
+    }
+}
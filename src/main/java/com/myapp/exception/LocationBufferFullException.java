@@ -0,0 +1,21 @@
+package com.myapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Unchecked on purpose: it can be thrown by every location update when the write-behind mode is enabled and callers
+ * can only retry later.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many pending location updates, retry later.")
+public class LocationBufferFullException extends RuntimeException
+{
+    static final long serialVersionUID = -1387516993334229948L;
+
+
+    public LocationBufferFullException(String message)
+    {
+        super(message);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.myapp.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer setup. Requests ({@code http.server.requests}) and repository calls
+ * ({@code spring.data.repository.invocations}) are timed by Spring Boot; the services are timed through
+ * {@link io.micrometer.core.annotation.Timed} as {@code myapp.service}, tagged with class and method.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    public static final String SERVICE_TIMER = "myapp.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
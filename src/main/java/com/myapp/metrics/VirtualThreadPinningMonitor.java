@@ -0,0 +1,102 @@
+package com.myapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads which stay pinned to their carrier thread, e.g. because they block inside a
+ * {@code synchronized} block, for longer than {@code myapp.virtual-threads.pinned-threshold-millis}. Listens to the
+ * {@code jdk.VirtualThreadPinned} JFR event in process. Every pinning site, the first {@code com.myapp} frame or else
+ * the top frame, is logged once with its stack trace and counted in {@code myapp.virtualthreads.pinned}; a summary is
+ * logged on shutdown.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String APPLICATION_PACKAGE = "com.myapp.";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration threshold;
+
+    private final Map<String, Counter> pinningSites = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${myapp.virtual-threads.pinned-threshold-millis:20}") long thresholdMillis) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        recordingStream.close();
+        pinningSites.forEach((site, counter) ->
+                LOG.info("virtual threads pinned {} times at {}", (long) counter.count(), site));
+    }
+
+    void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = pinningSite(frames);
+        pinningSites.computeIfAbsent(site, key -> {
+            LOG.warn("virtual thread pinned for {} ms at {}\n{}", event.getDuration().toMillis(), key, format(frames));
+            return Counter.builder("myapp.virtualthreads.pinned")
+                    .description("Virtual threads pinned to their carrier longer than the threshold")
+                    .tag("site", key)
+                    .register(meterRegistry);
+        }).increment();
+    }
+
+    private static String pinningSite(List<RecordedFrame> frames) {
+        RecordedFrame site = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.isEmpty() ? null : frames.get(0));
+        return site != null ? frameName(site) : "unknown";
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : frames) {
+            stack.append("\tat ").append(frameName(frame)).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return stack.toString();
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
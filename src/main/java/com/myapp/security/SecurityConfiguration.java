@@ -1,20 +1,42 @@
 package com.myapp.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Requests are authenticated either with a bearer token from {@code POST /v1/tokens} or with HTTP Basic. Tokens are
+ * verified with one HMAC, without the user store; Basic credentials are checked against the user store and can
+ * optionally be cached ({@code myapp.security.basic-cache.enabled}).
+ */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfiguration {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SecurityConfiguration.class);
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService, AuthenticationManager authenticationManager)
+            throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
@@ -22,10 +44,41 @@ public class SecurityConfiguration {
                 .anyRequest().authenticated()
             )
             .headers(headers -> headers.frameOptions(frame -> frame.disable()))
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authenticationManager(authenticationManager)
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
             .httpBasic(basic -> {});
         return http.build();
     }
 
+    @Bean
+    public AuthenticationManager authenticationManager(
+            UserDetailsService userDetailsService,
+            @Value("${myapp.security.basic-cache.enabled:false}") boolean basicCacheEnabled,
+            @Value("${myapp.security.basic-cache.spec:maximumSize=1000,expireAfterWrite=60s}") String basicCacheSpec) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        AuthenticationProvider provider = basicCacheEnabled
+                ? new CachingAuthenticationProvider(daoAuthenticationProvider, basicCacheSpec)
+                : daoAuthenticationProvider;
+        return new ProviderManager(provider);
+    }
+
+    @Bean
+    public TokenService tokenService(
+            @Value("${myapp.security.token.secret:}") String secret,
+            @Value("${myapp.security.token.ttl-seconds:900}") long ttlSeconds) {
+        byte[] key;
+        if (secret.isEmpty()) {
+            LOG.warn("myapp.security.token.secret is not set, tokens are only valid until the next restart of this instance");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        return new TokenService(key, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
     @SuppressWarnings("deprecation")
     @Bean
     public UserDetailsService userDetailsService() {
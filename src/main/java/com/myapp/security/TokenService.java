@@ -0,0 +1,141 @@
+package com.myapp.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies short-lived bearer tokens signed with HMAC-SHA256. A token carries the username, the
+ * authorities and the expiry, so verifying it needs neither the user store nor a password hash.
+ * <p/>
+ * Format: {@code base64url(expiresEpochSecond:authorities:username).base64url(hmac)}. Tokens can't be revoked; they
+ * become invalid when they expire or the secret changes.
+ */
+public class TokenService {
+
+    static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    private final Duration timeToLive;
+
+    private final Clock clock;
+
+    // Mac instances are not thread safe; cloning an initialized one is cheaper than creating one, and unlike a
+    // ThreadLocal doesn't leave one behind per virtual thread
+    private final Mac prototype;
+
+    public TokenService(byte[] secret, Duration timeToLive, Clock clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("the token secret must have at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.prototype = newMac();
+    }
+
+    /**
+     * Issues a token for an authenticated user.
+     */
+    public Token issue(Authentication authentication) {
+        Instant expiresAt = clock.instant().plus(timeToLive);
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        String payload = expiresAt.getEpochSecond() + ":" + authorities + ":" + authentication.getName();
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return new Token(encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload)), expiresAt);
+    }
+
+    /**
+     * @return the authenticated user of the token, or null if the token is malformed, forged or expired
+     */
+    public Authentication verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return null;
+        }
+        String encodedPayload = token.substring(0, separator);
+        byte[] signature;
+        String[] fields;
+        try {
+            signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                return null;
+            }
+            fields = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":", 3);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (fields.length != 3 || !isValid(fields[0])) {
+            return null;
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(
+                fields[2], null, AuthorityUtils.commaSeparatedStringToAuthorityList(fields[1]));
+    }
+
+    private boolean isValid(String expiresEpochSecond) {
+        try {
+            return clock.instant().getEpochSecond() < Long.parseLong(expiresEpochSecond);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            mac = newMac();
+        }
+        return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public static final class Token {
+
+        private final String value;
+
+        private final Instant expiresAt;
+
+        private Token(String value, Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
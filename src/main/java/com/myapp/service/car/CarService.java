@@ -1,16 +1,27 @@
 package com.myapp.service.car;
 
+import com.myapp.dataaccessobject.CarSummary;
 import com.myapp.domainobject.CarDO;
+import com.myapp.domainvalue.BatchItemStatus;
 import com.myapp.exception.CarAlreadyInUseException;
 import com.myapp.exception.ConstraintsViolationException;
 import com.myapp.exception.EntityNotFoundException;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 public interface CarService {
 
     CarDO find(String licensePlate) throws EntityNotFoundException;
 
+    Map<String, CarDO> findByLicensePlates(Collection<String> licensePlates) throws ConstraintsViolationException;
+
     CarDO create(CarDO carDO) throws ConstraintsViolationException;
 
+    List<BatchItemStatus> createAll(List<CarDO> cars) throws ConstraintsViolationException;
+
     void delete(String licensePlate) throws EntityNotFoundException, ConstraintsViolationException;
 
     void addDriver(Long driverId, String licensePlate) throws ConstraintsViolationException, EntityNotFoundException, CarAlreadyInUseException;
@@ -18,4 +29,10 @@ public interface CarService {
     void deleteDriver(Long driverId, String licensePlate) throws ConstraintsViolationException, EntityNotFoundException, CarAlreadyInUseException;
 
     Iterable<CarDO> findAll();
+
+    List<CarSummary> findAllSummaries();
+
+    void streamAll(Consumer<CarDO> consumer);
+
+    long getCatalogVersion();
 }
@@ -1,30 +1,84 @@
 package com.myapp.service.car;
 
+import com.google.common.util.concurrent.Striped;
+import com.myapp.cache.CacheConfiguration;
 import com.myapp.dataaccessobject.CarRepository;
+import com.myapp.dataaccessobject.CarSummary;
 import com.myapp.domainobject.CarDO;
-import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
 import com.myapp.exception.CarAlreadyInUseException;
 import com.myapp.exception.ConstraintsViolationException;
 import com.myapp.exception.EntityNotFoundException;
+import com.myapp.metrics.MetricsConfiguration;
+import com.myapp.service.driver.DriverChangedEvent;
 import com.myapp.service.driver.DriverService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import static com.myapp.domainvalue.OnlineStatus.ONLINE;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class DefaultCarService implements CarService {
 
     private static org.slf4j.Logger LOG = LoggerFactory.getLogger(DefaultCarService.class);
 
+    static final int STREAM_CLEAR_INTERVAL = 500;
+
+    static final int MAX_CREATE_BATCH_SIZE = 1000;
+
+    static final int CAR_LOCK_STRIPES = 64;
+
+    static final int MAX_LOOKUP_SIZE = 1000;
+
     private final CarRepository carRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final Striped<Lock> carLocks = Striped.lock(CAR_LOCK_STRIPES);
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Map<Long, String> carsByDriver = new ConcurrentHashMap<>();
     private DriverService driverService;
 
-    public DefaultCarService(final CarRepository carRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DefaultCarService(final CarRepository carRepository, final PlatformTransactionManager transactionManager,
+                             final CacheManager cacheManager) {
         this.carRepository = carRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
     }
 
     @Autowired
@@ -32,14 +86,66 @@ public class DefaultCarService implements CarService {
         this.driverService = driverService;
     }
 
+    /**
+     * Selects a car by license plate. Cars are cached with their driver, so the result is detached and must not be
+     * changed; changes go through the methods of this service, which evict the car. Changes of the driver evict it
+     * in {@link #onDriverChanged}.
+     */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfiguration.CARS, key = "#licensePlate")
     public CarDO find(String licensePlate) throws EntityNotFoundException {
         return findCarChecked(licensePlate);
     }
 
+    /**
+     * Selects many cars by license plate. Cached cars are taken from the cache, the others are read with one query and
+     * cached. Like {@link #find(String)} the cars must not be changed.
+     *
+     * @param licensePlates - at most {@value #MAX_LOOKUP_SIZE} license plates
+     * @return the found cars by license plate, in the order of the given license plates; unknown ones are left out
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, CarDO> findByLicensePlates(Collection<String> licensePlates) throws ConstraintsViolationException {
+        if (licensePlates.size() > MAX_LOOKUP_SIZE) {
+            throw new ConstraintsViolationException("At most " + MAX_LOOKUP_SIZE + " cars can be looked up at once");
+        }
+        if (licensePlates.stream().anyMatch(Objects::isNull)) {
+            throw new ConstraintsViolationException("License plate can not be null!");
+        }
+        Cache cache = cacheManager.getCache(CacheConfiguration.CARS);
+        Map<String, CarDO> found = new HashMap<>();
+        Set<String> uncached = new HashSet<>();
+        for (String licensePlate : licensePlates) {
+            CarDO cached = cache != null ? cache.get(licensePlate, CarDO.class) : null;
+            if (cached != null) {
+                found.put(licensePlate, cached);
+            } else {
+                uncached.add(licensePlate);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (CarDO carDO : carRepository.findByLicensePlateIn(uncached)) {
+                found.put(carDO.getLicensePlate(), carDO);
+                if (cache != null) {
+                    cache.put(carDO.getLicensePlate(), carDO);
+                }
+            }
+        }
+        Map<String, CarDO> result = new LinkedHashMap<>();
+        for (String licensePlate : licensePlates) {
+            CarDO carDO = found.get(licensePlate);
+            if (carDO != null) {
+                result.put(licensePlate, carDO);
+            }
+        }
+        return result;
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfiguration.CARS, key = "#carDO.licensePlate")
     public CarDO create(CarDO carDO) throws ConstraintsViolationException {
         CarDO driver;
         try {
@@ -48,46 +154,83 @@ public class DefaultCarService implements CarService {
             LOG.warn("Some constraints are thrown due to driver creation", e);
             throw new ConstraintsViolationException(e.getMessage());
         }
+        incrementCatalogVersionAfterCommit();
         return driver;
     }
 
+    /**
+     * Inserts many cars in one transaction, so that Hibernate can send them as JDBC batches. Cars with a license plate
+     * which already exists, or which appears earlier in the list, are skipped as {@link BatchItemStatus#DUPLICATE}.
+     * If the batch still violates a constraint, e.g. because of a concurrent insert, every car is retried in its own
+     * transaction.
+     *
+     * @return the status of every car, in the order of the given list
+     */
+    @Override
+    public List<BatchItemStatus> createAll(List<CarDO> cars) throws ConstraintsViolationException {
+        if (cars.size() > MAX_CREATE_BATCH_SIZE) {
+            throw new ConstraintsViolationException("At most " + MAX_CREATE_BATCH_SIZE + " cars can be created at once");
+        }
+        Set<String> existing = carRepository.findExistingLicensePlates(cars.stream()
+                .map(CarDO::getLicensePlate)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<BatchItemStatus> statuses = new ArrayList<>(cars.size());
+        List<Integer> newCarIndexes = new ArrayList<>(cars.size());
+        Set<String> seen = new HashSet<>();
+        for (CarDO carDO : cars) {
+            if (existing.contains(carDO.getLicensePlate()) || !seen.add(carDO.getLicensePlate())) {
+                statuses.add(BatchItemStatus.DUPLICATE);
+            } else {
+                newCarIndexes.add(statuses.size());
+                statuses.add(BatchItemStatus.OK);
+            }
+        }
+        List<CarDO> newCars = newCarIndexes.stream().map(cars::get).collect(Collectors.toList());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> carRepository.saveAll(newCars));
+        } catch (DataIntegrityViolationException e) {
+            LOG.warn("Batch insert of {} cars violates a constraint, inserting them one by one", newCars.size(), e);
+            for (int index : newCarIndexes) {
+                statuses.set(index, createSingle(cars.get(index)));
+            }
+        }
+        incrementCatalogVersionAfterCommit();
+        return statuses;
+    }
+
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfiguration.CARS, key = "#licensePlate")
     public void delete(String licensePlate) throws EntityNotFoundException, ConstraintsViolationException {
         CarDO carDO = findCarChecked(licensePlate);
         carRepository.delete(carDO);
+        incrementCatalogVersionAfterCommit();
     }
 
+    /**
+     * Assigns the car with a conditional update of the driver, see {@link DriverService#assignCar}. Requests for the
+     * same car queue up on an in-process lock which is held until the transaction completes, so they don't wait on
+     * database row locks.
+     */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = CarAlreadyInUseException.class)
+    @CacheEvict(cacheNames = CacheConfiguration.CARS, key = "#licensePlate")
     public void addDriver(Long driverId, String licensePlate) throws ConstraintsViolationException, EntityNotFoundException, CarAlreadyInUseException {
-        CarDO carDO = find(licensePlate);
-        DriverDO driver = driverService.find(driverId);
-        if (carDO.getDriver() != null) {
-            throw new CarAlreadyInUseException("This car is already in use by another driver");
-        }
-        if (driver.getOnlineStatus() != ONLINE) {
-            throw new ConstraintsViolationException("Driver status is not ONLINE");
-        }
-        carDO.setDriver(driver);
-        create(carDO);
-        driverService.updateCar(driverId, carDO);
+        lockUntilCompletion(licensePlate);
+        driverService.assignCar(driverId, findCarChecked(licensePlate));
+        incrementCatalogVersionAfterCommit();
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfiguration.CARS, key = "#licensePlate")
     public void deleteDriver(Long driverId, String licensePlate) throws ConstraintsViolationException, EntityNotFoundException, CarAlreadyInUseException {
-        CarDO carDO = find(licensePlate);
-        DriverDO driver = driverService.find(driverId);
-        if (carDO.getDriver() == null) {
-            throw new ConstraintsViolationException("No driver for this car");
-        }
-        if (carDO.getDriver().getId() != driver.getId()) {
-            throw new ConstraintsViolationException("This driver is not driving this car");
-        }
-        carDO.setDriver(null);
-        create(carDO);
-        driverService.updateCar(driverId, null);
+        lockUntilCompletion(licensePlate);
+        driverService.releaseCar(driverId, findCarChecked(licensePlate));
+        incrementCatalogVersionAfterCommit();
     }
 
     @Override
@@ -95,6 +238,129 @@ public class DefaultCarService implements CarService {
         return carRepository.findAll();
     }
 
+    /**
+     * Lists all cars with their drivers as read-only projections, selected with one query. Cheaper than
+     * {@link #findAll()} when the cars are only shown.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CarSummary> findAllSummaries() {
+        return carRepository.findAllSummaries();
+    }
+
+    /**
+     * Hands every car to the consumer, reading them with a database cursor and clearing the persistence context every
+     * {@value #STREAM_CLEAR_INTERVAL} rows. The consumer must not keep references to the entities.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<CarDO> consumer) {
+        try (Stream<CarDO> cars = carRepository.streamAll()) {
+            int count = 0;
+            Iterator<CarDO> iterator = cars.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Version of the car catalog, for conditional requests. It grows after every committed change of a car, of the
+     * assignment of a car or of a driver who has a car, as cars show their driver. In write-behind mode a position
+     * counts when it is reported, not when it is written. The counter is kept per instance.
+     */
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCarAssignments() {
+        carRepository.findCarAssignments()
+                .forEach(assignment -> carsByDriver.put(assignment.driverId(), assignment.licensePlate()));
+    }
+
+    /**
+     * Evicts the cached car of a changed driver, as the car shows its driver, and only then counts the change, so a
+     * new version is never answered with the cached old driver.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDriverChanged(DriverChangedEvent event) {
+        if (event.getType() == DriverChangedEvent.Type.CAR) {
+            String previous = event.getLicensePlate() != null
+                    ? carsByDriver.put(event.getDriverId(), event.getLicensePlate())
+                    : carsByDriver.remove(event.getDriverId());
+            evictCar(previous);
+            evictCar(event.getLicensePlate());
+            catalogVersion.incrementAndGet();
+        } else {
+            String licensePlate = carsByDriver.get(event.getDriverId());
+            if (licensePlate != null) {
+                evictCar(licensePlate);
+                catalogVersion.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Evicts at once: this runs after the commit, when the transaction aware cache would no longer defer the eviction.
+     */
+    private void evictCar(String licensePlate) {
+        Cache cache = cacheManager.getCache(CacheConfiguration.CARS);
+        if (licensePlate != null && cache != null) {
+            cache.evictIfPresent(licensePlate);
+        }
+    }
+
+    private BatchItemStatus createSingle(CarDO carDO) {
+        // the id handed out by the rolled back batch is discarded
+        carDO.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> carRepository.save(carDO));
+            return BatchItemStatus.OK;
+        } catch (DataIntegrityViolationException e) {
+            return carRepository.findByLicensePlate(carDO.getLicensePlate()) != null ? BatchItemStatus.DUPLICATE : BatchItemStatus.INVALID;
+        }
+    }
+
+    private void lockUntilCompletion(String licensePlate) {
+        Lock lock = carLocks.get(licensePlate);
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // nothing to wait for without a transaction
+            lock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Counts a change once it is committed and the car cache is evicted, which happens in an after commit callback,
+     * so a version never describes data which isn't visible yet.
+     */
+    private void incrementCatalogVersionAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogVersion.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    catalogVersion.incrementAndGet();
+                }
+            }
+        });
+    }
+
     private CarDO findCarChecked(String licensePlate) throws EntityNotFoundException {
         CarDO carDO = carRepository.findByLicensePlate(licensePlate);
         if (carDO == null) {
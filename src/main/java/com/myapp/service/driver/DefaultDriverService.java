@@ -1,49 +1,187 @@
 package com.myapp.service.driver;
 
 import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.dataaccessobject.DriverSpecifications;
+import com.myapp.dataaccessobject.DriverSummary;
 import com.myapp.domainobject.CarDO;
 import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.domainvalue.BoundingBox;
 import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.LocationUpdate;
 import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.exception.CarAlreadyInUseException;
 import com.myapp.exception.ConstraintsViolationException;
 import com.myapp.exception.EntityNotFoundException;
+import com.myapp.metrics.MetricsConfiguration;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service to encapsulate the link between DAO and controller and to have business logic for some driver specific things.
  * <p/>
  */
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 public class DefaultDriverService implements DriverService
 {
 
     private static org.slf4j.Logger LOG = LoggerFactory.getLogger(DefaultDriverService.class);
 
+    static final int MAX_NEARBY_LIMIT = 100;
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final int STREAM_CLEAR_INTERVAL = 500;
+
+    static final int MAX_LOCATION_BATCH_SIZE = 5000;
+
+    static final int MAX_CREATE_BATCH_SIZE = 1000;
+
     private final DriverRepository driverRepository;
 
+    private final DriverLocationIndex driverLocationIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DriverPresenceTracker driverPresenceTracker;
 
-    public DefaultDriverService(final DriverRepository driverRepository)
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private LocationWriteBehindBuffer locationWriteBehindBuffer;
+
+    private LocationUpdateFilter locationUpdateFilter;
+
+
+    public DefaultDriverService(
+        final DriverRepository driverRepository, final DriverLocationIndex driverLocationIndex,
+        final PlatformTransactionManager transactionManager, final ApplicationEventPublisher eventPublisher,
+        final DriverPresenceTracker driverPresenceTracker)
     {
         this.driverRepository = driverRepository;
+        this.driverLocationIndex = driverLocationIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.driverPresenceTracker = driverPresenceTracker;
+    }
+
+
+    /**
+     * Enables the write-behind mode for location updates, only present if configured.
+     */
+    @Autowired(required = false)
+    public void setLocationWriteBehindBuffer(LocationWriteBehindBuffer locationWriteBehindBuffer)
+    {
+        this.locationWriteBehindBuffer = locationWriteBehindBuffer;
+    }
+
+
+    /**
+     * Enables the ingestion filter for location updates, only present if configured.
+     */
+    @Autowired(required = false)
+    public void setLocationUpdateFilter(LocationUpdateFilter locationUpdateFilter)
+    {
+        this.locationUpdateFilter = locationUpdateFilter;
     }
 
 
     /**
-     * Selects a driver by id.
+     * Fills the location index with the positions stored in the database once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildLocationIndex()
+    {
+        driverLocationIndex.rebuild(driverRepository.findAll());
+        LOG.info("Driver location index rebuilt with {} drivers", driverLocationIndex.size());
+    }
+
+
+    /**
+     * Selects a driver by id. In write-behind mode the position not written yet is returned.
      *
      * @param driverId
      * @return found driver
      * @throws EntityNotFoundException if no driver with the given id was found.
      */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public DriverDO find(Long driverId) throws EntityNotFoundException
     {
-        return findDriverChecked(driverId);
+        return withBufferedLocation(findDriverChecked(driverId));
+    }
+
+
+    /**
+     * Selects many drivers with one query, as read-only projections. In write-behind mode the positions not written yet
+     * are returned.
+     *
+     * @param driverIds - at most {@value #MAX_PAGE_SIZE} ids
+     * @return the found drivers by id, in the order of the given ids; unknown ids are left out
+     * @throws ConstraintsViolationException if too many ids are given.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, DriverSummary> findByIds(Collection<Long> driverIds) throws ConstraintsViolationException
+    {
+        if (driverIds.size() > MAX_PAGE_SIZE)
+        {
+            throw new ConstraintsViolationException("At most " + MAX_PAGE_SIZE + " drivers can be looked up at once");
+        }
+        Map<Long, DriverSummary> byId = new HashMap<>();
+        if (!driverIds.isEmpty())
+        {
+            List<DriverSummary> drivers = driverRepository.findSummaryPage(DriverSpecifications.idIn(driverIds), driverIds.size());
+            for (DriverSummary driver : withBufferedLocations(drivers))
+            {
+                byId.put(driver.id(), driver);
+            }
+        }
+        Map<Long, DriverSummary> result = new LinkedHashMap<>();
+        for (Long driverId : driverIds)
+        {
+            DriverSummary driver = byId.get(driverId);
+            if (driver != null)
+            {
+                result.put(driverId, driver);
+            }
+        }
+        return result;
     }
 
 
@@ -68,10 +206,66 @@ public class DefaultDriverService implements DriverService
             LOG.warn("Some constraints are thrown due to driver creation", e);
             throw new ConstraintsViolationException(e.getMessage());
         }
+        trackPresenceAfterCommit(List.of(driver));
         return driver;
     }
 
 
+    /**
+     * Inserts many drivers in one transaction, so that Hibernate can send them as JDBC batches. Drivers with a username
+     * which already exists, or which appears earlier in the list, are skipped as {@link BatchItemStatus#DUPLICATE}.
+     * If the batch still violates a constraint, e.g. because of a concurrent insert, every driver is retried in its own
+     * transaction.
+     *
+     * @param drivers
+     * @return the status of every driver, in the order of the given list
+     * @throws ConstraintsViolationException if the batch is too large.
+     */
+    @Override
+    public List<BatchItemStatus> createAll(List<DriverDO> drivers) throws ConstraintsViolationException
+    {
+        if (drivers.size() > MAX_CREATE_BATCH_SIZE)
+        {
+            throw new ConstraintsViolationException("At most " + MAX_CREATE_BATCH_SIZE + " drivers can be created at once");
+        }
+        Set<String> existing = driverRepository.findExistingUsernames(drivers.stream()
+            .map(DriverDO::getUsername)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
+
+        List<BatchItemStatus> statuses = new ArrayList<>(drivers.size());
+        List<Integer> newDriverIndexes = new ArrayList<>(drivers.size());
+        Set<String> seen = new HashSet<>();
+        for (DriverDO driverDO : drivers)
+        {
+            if (existing.contains(driverDO.getUsername()) || !seen.add(driverDO.getUsername()))
+            {
+                statuses.add(BatchItemStatus.DUPLICATE);
+            }
+            else
+            {
+                newDriverIndexes.add(statuses.size());
+                statuses.add(BatchItemStatus.OK);
+            }
+        }
+        List<DriverDO> newDrivers = newDriverIndexes.stream().map(drivers::get).collect(Collectors.toList());
+
+        try
+        {
+            transactionTemplate.executeWithoutResult(status -> trackPresenceAfterCommit(driverRepository.saveAll(newDrivers)));
+        }
+        catch (DataIntegrityViolationException e)
+        {
+            LOG.warn("Batch insert of {} drivers violates a constraint, inserting them one by one", newDrivers.size(), e);
+            for (int index : newDriverIndexes)
+            {
+                statuses.set(index, createSingle(drivers.get(index)));
+            }
+        }
+        return statuses;
+    }
+
+
     /**
      * Deletes an existing driver by id.
      *
@@ -84,31 +278,321 @@ public class DefaultDriverService implements DriverService
     {
         DriverDO driverDO = findDriverChecked(driverId);
         driverDO.setDeleted(true);
+        driverLocationIndex.remove(driverId);
+        forgetFiltered(driverId);
+        eventPublisher.publishEvent(DriverChangedEvent.deleted(driverDO));
     }
 
 
     /**
-     * Update the location for a driver.
+     * Update the location for a driver with a single update of the position columns. The driver isn't loaded; its
+     * online status for the location index is only read if the driver isn't indexed yet. In write-behind mode the
+     * position is only buffered and written later. With the ingestion filter enabled, updates which barely moved the
+     * driver or arrived out of order are dropped.
      *
      * @param driverId
      * @param longitude
      * @param latitude
+     * @param timestamp - time of the position reported by the driver, now if null
+     * @return {@link BatchItemStatus#OK} if the position was written, {@link BatchItemStatus#SUPPRESSED} if the filter
+     * dropped it, {@link BatchItemStatus#STALE} if a newer position is known
      * @throws EntityNotFoundException
      */
     @Override
     @Transactional
-    public void updateLocation(long driverId, double longitude, double latitude) throws EntityNotFoundException, ConstraintsViolationException {
-        DriverDO driverDO = findDriverChecked(driverId);
-        driverDO.setCoordinate(new GeoCoordinate(latitude, longitude));
-        create(driverDO);
+    public BatchItemStatus updateLocation(long driverId, double longitude, double latitude, ZonedDateTime timestamp)
+        throws EntityNotFoundException, ConstraintsViolationException
+    {
+        GeoCoordinate coordinate = new GeoCoordinate(latitude, longitude);
+        LocationUpdate update = new LocationUpdate(driverId, coordinate, timestamp != null ? timestamp : ZonedDateTime.now());
+        if (locationUpdateFilter != null)
+        {
+            BatchItemStatus status = locationUpdateFilter.check(update);
+            if (status != BatchItemStatus.OK)
+            {
+                return status;
+            }
+            forgetFilteredUnlessCommitted(List.of(driverId));
+        }
+        if (locationWriteBehindBuffer != null)
+        {
+            Optional<OnlineStatus> onlineStatus = onlineStatusOfActiveDriver(driverId);
+            if (onlineStatus.isEmpty() && !driverRepository.existsById(driverId))
+            {
+                throw driverNotFound(driverId);
+            }
+            if (isOlderThanKnownPosition(update))
+            {
+                forgetFiltered(driverId);
+                return BatchItemStatus.STALE;
+            }
+            locationWriteBehindBuffer.offer(update);
+            onlineStatus.ifPresent(status ->
+            {
+                driverLocationIndex.update(driverId, coordinate, update.getTimestamp(), status);
+                eventPublisher.publishEvent(DriverChangedEvent.location(driverId, coordinate, update.getTimestamp()));
+            });
+            return BatchItemStatus.OK;
+        }
+        if (driverRepository.updateLocation(driverId, latitude, longitude, update.getTimestamp()) == 0)
+        {
+            if (!driverRepository.existsById(driverId))
+            {
+                throw driverNotFound(driverId);
+            }
+            forgetFiltered(driverId);
+            return BatchItemStatus.STALE;
+        }
+        onlineStatusOfActiveDriver(driverId).ifPresent(status ->
+        {
+            driverLocationIndex.update(driverId, coordinate, update.getTimestamp(), status);
+            eventPublisher.publishEvent(DriverChangedEvent.location(driverId, coordinate, update.getTimestamp()));
+        });
+        return BatchItemStatus.OK;
+    }
+
+
+    /**
+     * Takes the online status of an indexed driver from the location index, which also holds status changes not
+     * written yet. Only drivers without a known position, and deleted ones, are looked up.
+     */
+    private Optional<OnlineStatus> onlineStatusOfActiveDriver(long driverId)
+    {
+        OnlineStatus onlineStatus = driverLocationIndex.onlineStatus(driverId);
+        return onlineStatus != null ? Optional.of(onlineStatus) : driverRepository.findOnlineStatusOfActiveDriver(driverId);
+    }
+
+
+    /**
+     * Compares a position with the buffered and the indexed position of the driver, without reading the database. The
+     * index holds the stored position of every active driver, as it is rebuilt from the database at start.
+     */
+    private boolean isOlderThanKnownPosition(LocationUpdate update)
+    {
+        LocationUpdate buffered = locationWriteBehindBuffer.get(update.getDriverId());
+        ZonedDateTime indexed = driverLocationIndex.positionTimestamp(update.getDriverId());
+        return buffered != null && buffered.getTimestamp().isAfter(update.getTimestamp())
+            || indexed != null && indexed.isAfter(update.getTimestamp());
+    }
+
+
+    private EntityNotFoundException driverNotFound(long driverId)
+    {
+        forgetFiltered(driverId);
+        return new EntityNotFoundException("Could not find entity with id: " + driverId);
     }
 
+
+    /**
+     * Drops the reference the ingestion filter keeps for a driver, e.g. because its position wasn't written.
+     */
+    private void forgetFiltered(long driverId)
+    {
+        if (locationUpdateFilter != null)
+        {
+            locationUpdateFilter.forget(driverId);
+        }
+    }
+
+
+    /**
+     * The ingestion filter takes an accepted update as reference before it is written. If the transaction writing it
+     * doesn't commit, the references are dropped, so a position which was never stored doesn't suppress the next
+     * updates of the drivers.
+     */
+    private void forgetFilteredUnlessCommitted(Collection<Long> driverIds)
+    {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void afterCompletion(int status)
+            {
+                if (status != STATUS_COMMITTED)
+                {
+                    driverIds.forEach(driverId -> forgetFiltered(driverId));
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Starts the heartbeat timeout of the drivers which are created online, once they are committed. Without a
+     * transaction they are tracked at once.
+     */
+    private void trackPresenceAfterCommit(Iterable<DriverDO> drivers)
+    {
+        List<Long> onlineDriverIds = new ArrayList<>();
+        drivers.forEach(driverDO ->
+        {
+            if (driverDO.getOnlineStatus() == OnlineStatus.ONLINE)
+            {
+                onlineDriverIds.add(driverDO.getId());
+            }
+        });
+        if (onlineDriverIds.isEmpty())
+        {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            onlineDriverIds.forEach(driverPresenceTracker::track);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void afterCompletion(int status)
+            {
+                if (status == STATUS_COMMITTED)
+                {
+                    onlineDriverIds.forEach(driverPresenceTracker::track);
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies many location updates in one transaction. All drivers are loaded with a single query and the changed
+     * rows are written with JDBC batch updates when the transaction commits. When a driver appears several times,
+     * the update with the latest timestamp wins and the others are {@code SUPERSEDED}. Updates older than the stored
+     * position are {@code STALE}, updates dropped by the ingestion filter {@code SUPPRESSED}.
+     *
+     * @param updates - at most {@value #MAX_LOCATION_BATCH_SIZE} updates
+     * @return the status of every update, in the order of the given list
+     * @throws ConstraintsViolationException if the batch is too large.
+     */
     @Override
     @Transactional
-    public void updateCar(long driverId, CarDO carDO) throws EntityNotFoundException, ConstraintsViolationException {
-        DriverDO driverDO = findDriverChecked(driverId);
-        driverDO.setCar(carDO);
-        create(driverDO);
+    public List<BatchItemStatus> updateLocations(List<LocationUpdate> updates) throws ConstraintsViolationException
+    {
+        if (updates.size() > MAX_LOCATION_BATCH_SIZE)
+        {
+            throw new ConstraintsViolationException("At most " + MAX_LOCATION_BATCH_SIZE + " location updates per batch");
+        }
+        Map<Long, LocationUpdate> latestUpdates = new HashMap<>();
+        for (LocationUpdate update : updates)
+        {
+            latestUpdates.merge(update.getDriverId(), update, LocationUpdate::latest);
+        }
+        Map<Long, LocationUpdate> winners = new HashMap<>(latestUpdates);
+
+        Map<Long, BatchItemStatus> result = new HashMap<>();
+        if (locationUpdateFilter != null)
+        {
+            for (LocationUpdate update : latestUpdates.values())
+            {
+                BatchItemStatus status = locationUpdateFilter.check(update);
+                if (status != BatchItemStatus.OK)
+                {
+                    result.put(update.getDriverId(), status);
+                }
+            }
+            latestUpdates.keySet().removeAll(result.keySet());
+            forgetFilteredUnlessCommitted(new ArrayList<>(latestUpdates.keySet()));
+        }
+        for (DriverDO driverDO : driverRepository.findAllById(latestUpdates.keySet()))
+        {
+            LocationUpdate update = latestUpdates.get(driverDO.getId());
+            if (driverDO.getDateCoordinateUpdated() != null && driverDO.getDateCoordinateUpdated().isAfter(update.getTimestamp()))
+            {
+                result.put(driverDO.getId(), BatchItemStatus.STALE);
+                forgetFiltered(driverDO.getId());
+                continue;
+            }
+            driverDO.setCoordinate(update.getCoordinate(), update.getTimestamp());
+            if (locationWriteBehindBuffer != null)
+            {
+                locationWriteBehindBuffer.discardUpTo(update);
+            }
+            if (!driverDO.getDeleted())
+            {
+                driverLocationIndex.update(driverDO.getId(), update.getCoordinate(), update.getTimestamp(), driverDO.getOnlineStatus());
+                eventPublisher.publishEvent(DriverChangedEvent.location(driverDO.getId(), update.getCoordinate(), update.getTimestamp()));
+            }
+            result.put(driverDO.getId(), BatchItemStatus.OK);
+        }
+        for (Long driverId : latestUpdates.keySet())
+        {
+            if (result.putIfAbsent(driverId, BatchItemStatus.NOT_FOUND) == null)
+            {
+                forgetFiltered(driverId);
+            }
+        }
+        return updates.stream()
+            .map(update -> winners.get(update.getDriverId()) == update ? result.get(update.getDriverId()) : BatchItemStatus.SUPERSEDED)
+            .collect(Collectors.toList());
+    }
+
+
+    /**
+     * Assigns the car to the driver with a single conditional update. The reason is only looked up if the update
+     * doesn't match.
+     *
+     * @param driverId
+     * @param carDO
+     * @throws EntityNotFoundException   if no active driver with the given id was found.
+     * @throws ConstraintsViolationException if the driver isn't online.
+     * @throws CarAlreadyInUseException  if another driver has the car.
+     */
+    @Override
+    @Transactional(rollbackFor = CarAlreadyInUseException.class)
+    public void assignCar(long driverId, CarDO carDO) throws EntityNotFoundException, ConstraintsViolationException, CarAlreadyInUseException
+    {
+        int updated;
+        try
+        {
+            updated = driverRepository.assignCar(driverId, carDO);
+        }
+        catch (DataIntegrityViolationException e)
+        {
+            // a concurrent transaction assigned the car after the check
+            throw new CarAlreadyInUseException("This car is already in use by another driver");
+        }
+        if (updated == 1)
+        {
+            eventPublisher.publishEvent(DriverChangedEvent.car(driverId, carDO.getLicensePlate()));
+            return;
+        }
+        Optional<OnlineStatus> onlineStatus = driverRepository.findOnlineStatusOfActiveDriver(driverId);
+        if (onlineStatus.isEmpty())
+        {
+            throw new EntityNotFoundException("Could not find entity with id: " + driverId);
+        }
+        if (onlineStatus.get() != OnlineStatus.ONLINE)
+        {
+            throw new ConstraintsViolationException("Driver status is not ONLINE");
+        }
+        throw new CarAlreadyInUseException("This car is already in use by another driver");
+    }
+
+
+    /**
+     * Releases the car of the driver with a single conditional update.
+     *
+     * @param driverId
+     * @param carDO
+     * @throws EntityNotFoundException   if no driver with the given id was found.
+     * @throws ConstraintsViolationException if the driver doesn't drive the car.
+     */
+    @Override
+    @Transactional
+    public void releaseCar(long driverId, CarDO carDO) throws EntityNotFoundException, ConstraintsViolationException
+    {
+        if (driverRepository.releaseCar(driverId, carDO) == 1)
+        {
+            eventPublisher.publishEvent(DriverChangedEvent.car(driverId, null));
+            return;
+        }
+        if (!driverRepository.existsById(driverId))
+        {
+            throw new EntityNotFoundException("Could not find entity with id: " + driverId);
+        }
+        throw new ConstraintsViolationException("This driver is not driving this car");
     }
 
 
@@ -123,6 +607,142 @@ public class DefaultDriverService implements DriverService
         return driverRepository.findByOnlineStatus(onlineStatus);
     }
 
+    /**
+     * Find the drivers closest to a position using the in-memory location index.
+     *
+     * @param latitude
+     * @param longitude
+     * @param radiusMeters
+     * @param onlineStatus - optional status filter
+     * @param limit        - maximum number of drivers, at most {@value #MAX_NEARBY_LIMIT}
+     * @return drivers ordered by distance, closest first
+     * @throws ConstraintsViolationException if the position, radius or limit are out of range.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DriverDO> findNearby(double latitude, double longitude, double radiusMeters, OnlineStatus onlineStatus, int limit)
+        throws ConstraintsViolationException
+    {
+        if (radiusMeters <= 0 || limit <= 0 || limit > MAX_NEARBY_LIMIT)
+        {
+            throw new ConstraintsViolationException("radiusMeters must be positive and limit between 1 and " + MAX_NEARBY_LIMIT);
+        }
+        GeoCoordinate center;
+        try
+        {
+            center = new GeoCoordinate(latitude, longitude);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ConstraintsViolationException(e.getMessage());
+        }
+
+        // the index only yields candidates, the loaded rows decide; candidates are loaded in chunks of the limit, closest
+        // first, until enough of them pass
+        List<DriverLocationIndex.Match> matches = driverLocationIndex.findNearby(center, radiusMeters, onlineStatus, Integer.MAX_VALUE);
+        List<DriverDO> result = new ArrayList<>(limit);
+        for (int from = 0; from < matches.size() && result.size() < limit; from += limit)
+        {
+            List<DriverLocationIndex.Match> candidates = matches.subList(from, Math.min(from + limit, matches.size()));
+            Map<Long, DriverDO> drivers = StreamSupport.stream(driverRepository.findAllById(
+                    candidates.stream().map(DriverLocationIndex.Match::getDriverId).collect(Collectors.toList())).spliterator(), false)
+                .collect(Collectors.toMap(DriverDO::getId, Function.identity()));
+            for (DriverLocationIndex.Match candidate : candidates)
+            {
+                DriverDO driver = drivers.get(candidate.getDriverId());
+                if (driver != null && !driver.getDeleted() && (onlineStatus == null || driver.getOnlineStatus() == onlineStatus)
+                    && result.size() < limit)
+                {
+                    result.add(withBufferedLocation(driver));
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Find a page of active drivers inside the area, ordered by id, with a range query on the location columns. In
+     * write-behind mode positions not written yet are not taken into account.
+     *
+     * @param boundingBox
+     * @param onlineStatus - optional filter
+     * @param afterId      - id of the last driver of the previous page, null for the first page
+     * @param limit        - page size, at most {@value #MAX_PAGE_SIZE}
+     * @throws ConstraintsViolationException if the page size is out of range.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DriverSummary> findInArea(BoundingBox boundingBox, OnlineStatus onlineStatus, Long afterId, int limit)
+        throws ConstraintsViolationException
+    {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE)
+        {
+            throw new ConstraintsViolationException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Specification<DriverDO> specification = Specification.where(DriverSpecifications.inBoundingBox(boundingBox))
+            .and(DriverSpecifications.idGreaterThan(afterId))
+            .and(filters(onlineStatus, null, false));
+        return withBufferedLocations(driverRepository.findSummaryPage(specification, limit));
+    }
+
+
+    /**
+     * Find a page of drivers matching all given filters, ordered by id. Only the listed columns are read, as
+     * projections which the read-only transaction neither dirty-checks nor flushes.
+     *
+     * @param onlineStatus - optional filter
+     * @param username     - optional filter
+     * @param deleted      - optional filter
+     * @param afterId      - id of the last driver of the previous page, null for the first page
+     * @param limit        - page size, at most {@value #MAX_PAGE_SIZE}
+     * @throws ConstraintsViolationException if the page size is out of range.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DriverSummary> findDrivers(OnlineStatus onlineStatus, String username, Boolean deleted, Long afterId, int limit)
+        throws ConstraintsViolationException
+    {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE)
+        {
+            throw new ConstraintsViolationException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Specification<DriverDO> specification = Specification.where(DriverSpecifications.idGreaterThan(afterId))
+            .and(filters(onlineStatus, username, deleted));
+        return withBufferedLocations(driverRepository.findSummaryPage(specification, limit));
+    }
+
+
+    /**
+     * Hands every driver matching the filters to the consumer, ordered by id, reading them with a database cursor.
+     * The persistence context is cleared every {@value #STREAM_CLEAR_INTERVAL} rows so memory stays flat regardless of
+     * the fleet size; the consumer must not keep references to the entities.
+     *
+     * @param onlineStatus - optional filter
+     * @param username     - optional filter
+     * @param deleted      - optional filter
+     * @param consumer     - called once per driver
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamDrivers(OnlineStatus onlineStatus, String username, Boolean deleted, Consumer<DriverDO> consumer)
+    {
+        try (Stream<DriverDO> drivers = driverRepository.stream(filters(onlineStatus, username, deleted)))
+        {
+            int count = 0;
+            Iterator<DriverDO> iterator = drivers.iterator();
+            while (iterator.hasNext())
+            {
+                consumer.accept(withBufferedLocation(iterator.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0)
+                {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+
     @Override
     public Iterable<DriverDO> findAll()
     {
@@ -130,6 +750,65 @@ public class DefaultDriverService implements DriverService
     }
 
 
+    private BatchItemStatus createSingle(DriverDO driverDO)
+    {
+        // the id handed out by the rolled back batch is discarded
+        driverDO.setId(null);
+        try
+        {
+            transactionTemplate.executeWithoutResult(status -> trackPresenceAfterCommit(List.of(driverRepository.save(driverDO))));
+            return BatchItemStatus.OK;
+        }
+        catch (DataIntegrityViolationException e)
+        {
+            return driverRepository.findExistingUsernames(List.of(driverDO.getUsername())).isEmpty()
+                ? BatchItemStatus.INVALID : BatchItemStatus.DUPLICATE;
+        }
+    }
+
+
+    /**
+     * Shows the buffered position of the driver, if any. Only used in read-only transactions so the entity isn't
+     * written because of it.
+     */
+    private DriverDO withBufferedLocation(DriverDO driverDO)
+    {
+        if (locationWriteBehindBuffer != null)
+        {
+            LocationUpdate buffered = locationWriteBehindBuffer.get(driverDO.getId());
+            if (buffered != null)
+            {
+                driverDO.setCoordinate(buffered.getCoordinate(), buffered.getTimestamp());
+            }
+        }
+        return driverDO;
+    }
+
+
+    private List<DriverSummary> withBufferedLocations(List<DriverSummary> drivers)
+    {
+        if (locationWriteBehindBuffer == null)
+        {
+            return drivers;
+        }
+        List<DriverSummary> result = new ArrayList<>(drivers.size());
+        for (DriverSummary driver : drivers)
+        {
+            LocationUpdate buffered = locationWriteBehindBuffer.get(driver.id());
+            result.add(buffered != null ? driver.withCoordinate(buffered.getCoordinate()) : driver);
+        }
+        return result;
+    }
+
+
+    private static Specification<DriverDO> filters(OnlineStatus onlineStatus, String username, Boolean deleted)
+    {
+        return Specification.where(DriverSpecifications.hasOnlineStatus(onlineStatus))
+            .and(DriverSpecifications.hasUsername(username))
+            .and(DriverSpecifications.isDeleted(deleted));
+    }
+
+
     private DriverDO findDriverChecked(Long driverId) throws EntityNotFoundException
     {
         return driverRepository.findById(driverId)
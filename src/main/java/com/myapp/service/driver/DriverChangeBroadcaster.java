@@ -0,0 +1,351 @@
+package com.myapp.service.driver;
+
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.GeoCoordinate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fans out committed {@link DriverChangedEvent}s to the subscribers of the driver change feed.
+ * <p/>
+ * Publishing never waits for a subscriber. Every subscriber has its own bounded queue, in which events are coalesced
+ * per driver and type so only the latest position, status or car is sent. If the queue is full, events of further
+ * drivers are dropped and counted. The queue is emptied by a virtual thread per subscriber, which may block on a slow
+ * client without affecting the others. Subscribers without events get an empty batch every heartbeat interval, so
+ * dead connections are detected.
+ */
+@Component
+public class DriverChangeBroadcaster
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(DriverChangeBroadcaster.class);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final DriverLocationIndex driverLocationIndex;
+
+    private final int subscriberCapacity;
+
+    private final long heartbeatMillis;
+
+    private final Counter droppedEvents;
+
+    private ScheduledExecutorService heartbeat;
+
+
+    public DriverChangeBroadcaster(
+        final DriverLocationIndex driverLocationIndex,
+        @Value("${myapp.driver.stream.subscriber-capacity:1000}") final int subscriberCapacity,
+        @Value("${myapp.driver.stream.heartbeat-millis:15000}") final long heartbeatMillis,
+        final MeterRegistry meterRegistry)
+    {
+        this.driverLocationIndex = driverLocationIndex;
+        this.subscriberCapacity = subscriberCapacity;
+        this.heartbeatMillis = heartbeatMillis;
+        this.droppedEvents = Counter.builder("myapp.driver.stream.dropped")
+            .description("Driver changes dropped because the queue of a subscriber was full")
+            .register(meterRegistry);
+        Gauge.builder("myapp.driver.stream.subscribers", subscriptions, Set::size).register(meterRegistry);
+    }
+
+
+    @PostConstruct
+    public void start()
+    {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "driver-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(
+            () -> subscriptions.forEach(Subscription::heartbeat), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    @PreDestroy
+    public void stop()
+    {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+    }
+
+
+    /**
+     * Registers a subscriber.
+     *
+     * @param boundingBox - only changes of drivers inside, or just leaving, this area; all drivers if null
+     * @param sink        - receives the changes, on a thread of its own
+     * @return the subscription, to be cancelled when the client is gone
+     */
+    public Subscription subscribe(final BoundingBox boundingBox, final Sink sink)
+    {
+        Subscription subscription = new Subscription(boundingBox, sink);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+
+    /**
+     * Queues a change for all matching subscribers. Runs after the commit of the transaction which made the change,
+     * or immediately if there is none. Changes without a position get the last known one from the location index, so
+     * subscribers of an area see them for drivers which haven't moved since they subscribed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDriverChanged(final DriverChangedEvent event)
+    {
+        DriverChangedEvent located = event;
+        if (event.getCoordinate() == null && event.getType() != DriverChangedEvent.Type.DELETED)
+        {
+            GeoCoordinate coordinate = driverLocationIndex.position(event.getDriverId());
+            if (coordinate != null)
+            {
+                located = event.withCoordinate(coordinate);
+            }
+        }
+        for (Subscription subscription : subscriptions)
+        {
+            subscription.offer(located);
+        }
+    }
+
+
+    /**
+     * Receiver of the changes of one subscriber.
+     */
+    public interface Sink
+    {
+        /**
+         * @param events - changes in order of their first occurrence, empty for a heartbeat
+         * @throws IOException if the client is gone, which cancels the subscription
+         */
+        void send(List<DriverChangedEvent> events) throws IOException;
+    }
+
+
+    public final class Subscription
+    {
+        private final BoundingBox boundingBox;
+
+        private final Sink sink;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /** pending events by driver and type, guarded by lock */
+        private final Map<PendingKey, DriverChangedEvent> pending = new LinkedHashMap<>();
+
+        /** drivers last seen inside the bounding box, guarded by lock */
+        private final Set<Long> inside = new HashSet<>();
+
+        /** a sender is running or about to run, guarded by lock */
+        private boolean scheduled;
+
+        private boolean heartbeatDue;
+
+        private volatile boolean cancelled;
+
+        private final AtomicLong dropped = new AtomicLong();
+
+
+        private Subscription(final BoundingBox boundingBox, final Sink sink)
+        {
+            this.boundingBox = boundingBox;
+            this.sink = sink;
+        }
+
+
+        public void cancel()
+        {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+
+        public long getDropped()
+        {
+            return dropped.get();
+        }
+
+
+        private void offer(final DriverChangedEvent event)
+        {
+            lock.lock();
+            try
+            {
+                if (cancelled || !matches(event))
+                {
+                    return;
+                }
+                if (event.getType() == DriverChangedEvent.Type.DELETED)
+                {
+                    pending.keySet().removeIf(key -> key.driverId == event.getDriverId());
+                }
+                PendingKey key = new PendingKey(event.getDriverId(), event.getType());
+                if (pending.size() >= subscriberCapacity && !pending.containsKey(key))
+                {
+                    dropped.incrementAndGet();
+                    droppedEvents.increment();
+                    return;
+                }
+                pending.put(key, event);
+                scheduleSender();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+
+        private void heartbeat()
+        {
+            lock.lock();
+            try
+            {
+                heartbeatDue = true;
+                scheduleSender();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+
+        /**
+         * Must be called with the lock held.
+         */
+        private boolean matches(final DriverChangedEvent event)
+        {
+            if (boundingBox == null)
+            {
+                return true;
+            }
+            long driverId = event.getDriverId();
+            boolean isInside = event.getCoordinate() != null && boundingBox.contains(event.getCoordinate());
+            if (event.getType() == DriverChangedEvent.Type.DELETED)
+            {
+                return inside.remove(driverId) || isInside;
+            }
+            if (isInside)
+            {
+                inside.add(driverId);
+                return true;
+            }
+            if (event.getType() == DriverChangedEvent.Type.LOCATION)
+            {
+                // tell the subscriber the driver has left the area
+                return inside.remove(driverId);
+            }
+            return inside.contains(driverId);
+        }
+
+
+        /**
+         * Must be called with the lock held.
+         */
+        private void scheduleSender()
+        {
+            if (!scheduled)
+            {
+                scheduled = true;
+                senders.execute(this::send);
+            }
+        }
+
+
+        private void send()
+        {
+            while (!cancelled)
+            {
+                List<DriverChangedEvent> events;
+                lock.lock();
+                try
+                {
+                    if (pending.isEmpty() && !heartbeatDue)
+                    {
+                        scheduled = false;
+                        return;
+                    }
+                    events = pending.isEmpty() ? Collections.emptyList() : new ArrayList<>(pending.values());
+                    pending.clear();
+                    heartbeatDue = false;
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+
+                try
+                {
+                    sink.send(events);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    LOG.debug("Driver change subscriber is gone", e);
+                    cancel();
+                }
+            }
+        }
+    }
+
+
+    private static final class PendingKey
+    {
+        private final long driverId;
+
+        private final DriverChangedEvent.Type type;
+
+
+        private PendingKey(final long driverId, final DriverChangedEvent.Type type)
+        {
+            this.driverId = driverId;
+            this.type = type;
+        }
+
+
+        @Override
+        public boolean equals(final Object other)
+        {
+            if (!(other instanceof PendingKey))
+            {
+                return false;
+            }
+            PendingKey key = (PendingKey) other;
+            return driverId == key.driverId && type == key.type;
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return Long.hashCode(driverId) * 31 + type.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.myapp.service.driver;
+
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.OnlineStatus;
+import java.time.ZonedDateTime;
+
+/**
+ * A change of a driver, published by {@link DefaultDriverService} and pushed to the subscribers of
+ * {@link DriverChangeBroadcaster} once the transaction has committed. Every event carries the position of the driver
+ * if known, so subscribers can filter by area; the other values depend on the type.
+ */
+public class DriverChangedEvent
+{
+
+    public enum Type
+    {
+        /** new position */
+        LOCATION,
+        /** new online status */
+        STATUS,
+        /** car selected, or released if the license plate is null */
+        CAR,
+        /** driver deleted, no further events follow */
+        DELETED
+    }
+
+
+    private final long driverId;
+
+    private final Type type;
+
+    private final GeoCoordinate coordinate;
+
+    private final OnlineStatus onlineStatus;
+
+    private final String licensePlate;
+
+    private final ZonedDateTime timestamp;
+
+
+    private DriverChangedEvent(
+        final long driverId, final Type type, final GeoCoordinate coordinate, final OnlineStatus onlineStatus,
+        final String licensePlate, final ZonedDateTime timestamp)
+    {
+        this.driverId = driverId;
+        this.type = type;
+        this.coordinate = coordinate;
+        this.onlineStatus = onlineStatus;
+        this.licensePlate = licensePlate;
+        this.timestamp = timestamp;
+    }
+
+
+    public static DriverChangedEvent location(final long driverId, final GeoCoordinate coordinate, final ZonedDateTime timestamp)
+    {
+        return new DriverChangedEvent(driverId, Type.LOCATION, coordinate, null, null, timestamp);
+    }
+
+
+    /**
+     * Status change of a driver which isn't loaded, without a position.
+     */
+    public static DriverChangedEvent status(final long driverId, final OnlineStatus onlineStatus)
+    {
+        return new DriverChangedEvent(driverId, Type.STATUS, null, onlineStatus, null, ZonedDateTime.now());
+    }
+
+
+    /**
+     * Car change of a driver which isn't loaded, without a position.
+     */
+    public static DriverChangedEvent car(final long driverId, final String licensePlate)
+    {
+        return new DriverChangedEvent(driverId, Type.CAR, null, null, licensePlate, ZonedDateTime.now());
+    }
+
+
+    public static DriverChangedEvent deleted(final DriverDO driverDO)
+    {
+        return new DriverChangedEvent(driverDO.getId(), Type.DELETED, driverDO.getCoordinate(), null, null, ZonedDateTime.now());
+    }
+
+
+    /**
+     * @return a copy of this event at the given position
+     */
+    public DriverChangedEvent withCoordinate(final GeoCoordinate coordinate)
+    {
+        return new DriverChangedEvent(driverId, type, coordinate, onlineStatus, licensePlate, timestamp);
+    }
+
+
+    public long getDriverId()
+    {
+        return driverId;
+    }
+
+
+    public Type getType()
+    {
+        return type;
+    }
+
+
+    public GeoCoordinate getCoordinate()
+    {
+        return coordinate;
+    }
+
+
+    public OnlineStatus getOnlineStatus()
+    {
+        return onlineStatus;
+    }
+
+
+    public String getLicensePlate()
+    {
+        return licensePlate;
+    }
+
+
+    public ZonedDateTime getTimestamp()
+    {
+        return timestamp;
+    }
+
+}
@@ -0,0 +1,331 @@
+package com.myapp.service.driver;
+
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.OnlineStatus;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Concurrent in-memory grid index of the last known driver positions.
+ * <p/>
+ * The world is split into cells of {@link #CELL_SIZE_DEGREES} x {@link #CELL_SIZE_DEGREES}. A radius query only
+ * visits the drivers registered in the cells overlapping the bounding box of the search circle instead of scanning
+ * the whole fleet. Longitude cells wrap around at the antimeridian, so a search circle crossing it also visits the
+ * cells on the other side. The database stays the source of truth; the index only produces candidates.
+ */
+@Component
+public class DriverLocationIndex
+{
+
+    static final double CELL_SIZE_DEGREES = 0.01;
+
+    private static final long LONGITUDE_CELLS = Math.round(360 / CELL_SIZE_DEGREES);
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+
+    /**
+     * Registers or moves a driver.
+     *
+     * @param driverId
+     * @param coordinate   - last known position
+     * @param timestamp    - time of the position, null if unknown
+     * @param onlineStatus - status to filter on in queries
+     */
+    public void update(final long driverId, final GeoCoordinate coordinate, final ZonedDateTime timestamp, final OnlineStatus onlineStatus)
+    {
+        final Entry entry = new Entry(driverId, coordinate.getLatitude(), coordinate.getLongitude(), timestamp, onlineStatus);
+        entries.compute(driverId, (id, previous) ->
+        {
+            if (previous != null && previous.cell != entry.cell)
+            {
+                removeFromCell(previous.cell, id);
+            }
+            if (previous == null || previous.cell != entry.cell)
+            {
+                addToCell(entry.cell, id);
+            }
+            return entry;
+        });
+    }
+
+
+    /**
+     * Changes the online status of an indexed driver, keeping its position.
+     *
+     * @param driverId
+     * @param onlineStatus
+     */
+    public void updateOnlineStatus(final long driverId, final OnlineStatus onlineStatus)
+    {
+        entries.computeIfPresent(driverId, (id, previous) -> previous.withOnlineStatus(onlineStatus));
+    }
+
+
+    /**
+     * @param driverId
+     * @return the last known position of an indexed driver, null if the driver isn't indexed
+     */
+    public GeoCoordinate position(final long driverId)
+    {
+        Entry entry = entries.get(driverId);
+        return entry != null ? new GeoCoordinate(entry.latitude, entry.longitude) : null;
+    }
+
+
+    /**
+     * @param driverId
+     * @return the time of the last known position of an indexed driver, null if the driver isn't indexed or the time
+     * is unknown
+     */
+    public ZonedDateTime positionTimestamp(final long driverId)
+    {
+        Entry entry = entries.get(driverId);
+        return entry != null ? entry.timestamp : null;
+    }
+
+
+    /**
+     * @param driverId
+     * @return the online status of an indexed driver, null if the driver isn't indexed
+     */
+    public OnlineStatus onlineStatus(final long driverId)
+    {
+        Entry entry = entries.get(driverId);
+        return entry != null ? entry.onlineStatus : null;
+    }
+
+
+    public void remove(final long driverId)
+    {
+        entries.computeIfPresent(driverId, (id, previous) ->
+        {
+            removeFromCell(previous.cell, id);
+            return null;
+        });
+    }
+
+
+    /**
+     * Replaces the content of the index with the positions of the given drivers. Deleted drivers and drivers without
+     * a known position are skipped.
+     *
+     * @param drivers
+     */
+    public void rebuild(final Iterable<DriverDO> drivers)
+    {
+        entries.keySet().forEach(this::remove);
+        for (DriverDO driver : drivers)
+        {
+            if (driver.getCoordinate() != null && !Boolean.TRUE.equals(driver.getDeleted()))
+            {
+                update(driver.getId(), driver.getCoordinate(), driver.getDateCoordinateUpdated(), driver.getOnlineStatus());
+            }
+        }
+    }
+
+
+    /**
+     * Finds the drivers closest to a position.
+     *
+     * @param center       - search center
+     * @param radiusMeters - search radius
+     * @param onlineStatus - only drivers with this status, or any status if null
+     * @param limit        - maximum number of results
+     * @return matches ordered by distance, closest first
+     */
+    public List<Match> findNearby(final GeoCoordinate center, final double radiusMeters, final OnlineStatus onlineStatus, final int limit)
+    {
+        final double latitude = center.getLatitude();
+        final double longitude = center.getLongitude();
+        final double deltaLatitude = radiusMeters / GeoCoordinate.METERS_PER_DEGREE;
+        final double cosLatitude = Math.cos(Math.toRadians(latitude));
+        final double deltaLongitude = cosLatitude > 1e-6 ? deltaLatitude / cosLatitude : 360;
+
+        final long minLatitudeCell = cellIndex(Math.max(-90, latitude - deltaLatitude));
+        final long maxLatitudeCell = cellIndex(Math.min(90, latitude + deltaLatitude));
+        long minLongitudeCell = cellIndex(longitude - deltaLongitude);
+        long maxLongitudeCell = cellIndex(longitude + deltaLongitude);
+        if (maxLongitudeCell - minLongitudeCell + 1 >= LONGITUDE_CELLS)
+        {
+            minLongitudeCell = 0;
+            maxLongitudeCell = LONGITUDE_CELLS - 1;
+        }
+        final long cellCount = (maxLatitudeCell - minLatitudeCell + 1) * (maxLongitudeCell - minLongitudeCell + 1);
+
+        final List<Match> matches = new ArrayList<>();
+        if (cellCount > entries.size())
+        {
+            // huge radius: walking the cells would be more expensive than looking at every driver once
+            for (Entry entry : entries.values())
+            {
+                collect(entry, latitude, longitude, radiusMeters, onlineStatus, matches);
+            }
+        }
+        else
+        {
+            for (long latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++)
+            {
+                for (long longitudeCell = minLongitudeCell; longitudeCell <= maxLongitudeCell; longitudeCell++)
+                {
+                    Set<Long> driverIds = cells.get(cellKey(latitudeCell, wrapLongitudeCell(longitudeCell)));
+                    if (driverIds != null)
+                    {
+                        collect(driverIds, latitude, longitude, radiusMeters, onlineStatus, matches);
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::getDistanceMeters));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+
+    private void collect(
+        final Collection<Long> driverIds, final double latitude, final double longitude, final double radiusMeters,
+        final OnlineStatus onlineStatus, final List<Match> matches)
+    {
+        for (Long driverId : driverIds)
+        {
+            Entry entry = entries.get(driverId);
+            if (entry != null)
+            {
+                collect(entry, latitude, longitude, radiusMeters, onlineStatus, matches);
+            }
+        }
+    }
+
+
+    private static void collect(
+        final Entry entry, final double latitude, final double longitude, final double radiusMeters,
+        final OnlineStatus onlineStatus, final List<Match> matches)
+    {
+        if (onlineStatus != null && entry.onlineStatus != onlineStatus)
+        {
+            return;
+        }
+        double distance = GeoCoordinate.distanceInMeters(latitude, longitude, entry.latitude, entry.longitude);
+        if (distance <= radiusMeters)
+        {
+            matches.add(new Match(entry.driverId, distance));
+        }
+    }
+
+
+    private void addToCell(final long cell, final Long driverId)
+    {
+        cells.compute(cell, (key, driverIds) ->
+        {
+            Set<Long> result = driverIds != null ? driverIds : ConcurrentHashMap.newKeySet();
+            result.add(driverId);
+            return result;
+        });
+    }
+
+
+    private void removeFromCell(final long cell, final Long driverId)
+    {
+        cells.computeIfPresent(cell, (key, driverIds) ->
+        {
+            driverIds.remove(driverId);
+            return driverIds.isEmpty() ? null : driverIds;
+        });
+    }
+
+
+    private static long cellIndex(final double degrees)
+    {
+        return (long) Math.floor(degrees / CELL_SIZE_DEGREES);
+    }
+
+
+    /**
+     * Maps a longitude cell index to the same meridian within [-180, 180), e.g. 180.5 to -179.5.
+     */
+    private static long wrapLongitudeCell(final long longitudeCell)
+    {
+        return Math.floorMod(longitudeCell + LONGITUDE_CELLS / 2, LONGITUDE_CELLS) - LONGITUDE_CELLS / 2;
+    }
+
+
+    private static long cellKey(final long latitudeCell, final long longitudeCell)
+    {
+        return (latitudeCell << 32) | (longitudeCell & 0xffffffffL);
+    }
+
+
+    /**
+     * A driver found by {@link #findNearby(GeoCoordinate, double, OnlineStatus, int)}.
+     */
+    public static class Match
+    {
+        private final long driverId;
+        private final double distanceMeters;
+
+
+        Match(final long driverId, final double distanceMeters)
+        {
+            this.driverId = driverId;
+            this.distanceMeters = distanceMeters;
+        }
+
+
+        public long getDriverId()
+        {
+            return driverId;
+        }
+
+
+        public double getDistanceMeters()
+        {
+            return distanceMeters;
+        }
+    }
+
+
+    private static final class Entry
+    {
+        private final long driverId;
+        private final double latitude;
+        private final double longitude;
+        private final ZonedDateTime timestamp;
+        private final OnlineStatus onlineStatus;
+        private final long cell;
+
+
+        private Entry(
+            final long driverId, final double latitude, final double longitude, final ZonedDateTime timestamp,
+            final OnlineStatus onlineStatus)
+        {
+            this.driverId = driverId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.timestamp = timestamp;
+            this.onlineStatus = onlineStatus;
+            this.cell = cellKey(cellIndex(latitude), wrapLongitudeCell(cellIndex(longitude)));
+        }
+
+
+        private Entry withOnlineStatus(final OnlineStatus status)
+        {
+            return new Entry(driverId, latitude, longitude, timestamp, status);
+        }
+    }
+
+}
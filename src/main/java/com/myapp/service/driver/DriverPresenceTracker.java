@@ -0,0 +1,368 @@
+package com.myapp.service.driver;
+
+import com.google.common.collect.Lists;
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.exception.DriverOfflineException;
+import com.myapp.exception.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory presence table of the online drivers. A driver goes online, sends a heartbeat at least every
+ * {@code timeout-seconds} and is set offline automatically when it falls silent.
+ * <p/>
+ * Deadlines are kept in a hashed timing wheel of {@code tick-millis} slots instead of one scheduled task per driver.
+ * The wheel has more slots than the timeout has ticks, so a slot only holds drivers expiring at the current tick and a
+ * tick only visits those; a heartbeat moves the driver to another slot in constant time. Status changes are applied to
+ * the location index at once and written to {@code DriverDO.onlineStatus} in batches every flush interval; failed
+ * batches are retried with the next flush.
+ * <p/>
+ * The table is per instance, heartbeats of a driver have to reach the same instance.
+ */
+@Component
+public class DriverPresenceTracker
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(DriverPresenceTracker.class);
+
+    static final int MAX_STATUS_BATCH_SIZE = 1000;
+
+    private final ConcurrentMap<Long, Long> deadlines = new ConcurrentHashMap<>();
+
+    private final List<Set<Long>> wheel;
+
+    private final long mask;
+
+    private final long timeoutTicks;
+
+    private volatile long currentTick;
+
+    private final ConcurrentMap<Long, OnlineStatus> pendingStatus = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final DriverRepository driverRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DriverLocationIndex driverLocationIndex;
+
+    private final Counter expired;
+
+    private final long tickMillis;
+
+    private final long flushIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    private long startNanos;
+
+
+    public DriverPresenceTracker(
+        final DriverRepository driverRepository,
+        final PlatformTransactionManager transactionManager,
+        final ApplicationEventPublisher eventPublisher,
+        final DriverLocationIndex driverLocationIndex,
+        final MeterRegistry meterRegistry,
+        @Value("${myapp.driver.presence.timeout-seconds:60}") final long timeoutSeconds,
+        @Value("${myapp.driver.presence.tick-millis:1000}") final long tickMillis,
+        @Value("${myapp.driver.presence.flush-interval-millis:1000}") final long flushIntervalMillis)
+    {
+        this.driverRepository = driverRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.driverLocationIndex = driverLocationIndex;
+        this.tickMillis = tickMillis;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.timeoutTicks = Math.max(1, (TimeUnit.SECONDS.toMillis(timeoutSeconds) + tickMillis - 1) / tickMillis);
+        int slots = Integer.highestOneBit((int) timeoutTicks) << 1;
+        this.mask = slots - 1;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++)
+        {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        this.expired = Counter.builder("myapp.driver.presence.expired")
+            .description("Drivers set offline because their heartbeat timed out")
+            .register(meterRegistry);
+        Gauge.builder("myapp.driver.presence.online", deadlines, Map::size).register(meterRegistry);
+    }
+
+
+    @PostConstruct
+    public void start()
+    {
+        startNanos = System.nanoTime();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "driver-presence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    @PreDestroy
+    public void stop() throws InterruptedException
+    {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        if (!pendingStatus.isEmpty())
+        {
+            LOG.error("{} driver status changes could not be written on shutdown", pendingStatus.size());
+        }
+    }
+
+
+    /**
+     * Tracks the drivers which are online in the database, with a full timeout to send their first heartbeat.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore()
+    {
+        List<Long> driverIds = driverRepository.findIdsByOnlineStatus(OnlineStatus.ONLINE);
+        driverIds.forEach(this::track);
+        LOG.info("Tracking presence of {} online drivers", driverIds.size());
+    }
+
+
+    /**
+     * Sets the driver online and starts its heartbeat timeout. Going online again only renews the timeout.
+     *
+     * @param driverId
+     * @throws EntityNotFoundException if there is no active driver with the id
+     */
+    public void online(final long driverId) throws EntityNotFoundException
+    {
+        requireActiveDriver(driverId);
+        if (track(driverId))
+        {
+            changeStatus(driverId, OnlineStatus.ONLINE);
+        }
+    }
+
+
+    /**
+     * Sets the driver offline and stops tracking it.
+     *
+     * @param driverId
+     * @throws EntityNotFoundException if there is no active driver with the id
+     */
+    public void offline(final long driverId) throws EntityNotFoundException
+    {
+        requireActiveDriver(driverId);
+        untrack(driverId);
+        changeStatus(driverId, OnlineStatus.OFFLINE);
+    }
+
+
+    /**
+     * Renews the timeout of an online driver.
+     *
+     * @param driverId
+     * @throws DriverOfflineException if the driver isn't online, e.g. because its timeout has passed already
+     */
+    public void heartbeat(final long driverId) throws DriverOfflineException
+    {
+        if (deadlines.computeIfPresent(driverId, (id, deadline) -> reschedule(id, deadline)) == null)
+        {
+            throw new DriverOfflineException("Driver " + driverId + " is not online");
+        }
+    }
+
+
+    public boolean isOnline(final long driverId)
+    {
+        return deadlines.containsKey(driverId);
+    }
+
+
+    public int size()
+    {
+        return deadlines.size();
+    }
+
+
+    /**
+     * Forgets deleted drivers, so they aren't set offline later.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDriverChanged(final DriverChangedEvent event)
+    {
+        if (event.getType() == DriverChangedEvent.Type.DELETED)
+        {
+            untrack(event.getDriverId());
+            pendingStatus.remove(event.getDriverId());
+        }
+    }
+
+
+    /**
+     * Runs the ticks which are due since the start, catching up after the thread was delayed.
+     */
+    private void advance()
+    {
+        long due = (System.nanoTime() - startNanos) / TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        while (currentTick < due)
+        {
+            tick();
+        }
+    }
+
+
+    /**
+     * Moves the wheel one slot ahead and sets the drivers of that slot offline. Only called by one thread at a time.
+     */
+    public void tick()
+    {
+        final long tick = currentTick + 1;
+        currentTick = tick;
+        Set<Long> slot = wheel.get((int) (tick & mask));
+        for (Long driverId : slot)
+        {
+            final boolean[] timedOut = new boolean[1];
+            deadlines.computeIfPresent(driverId, (id, deadline) ->
+            {
+                if (deadline > tick)
+                {
+                    return deadline;
+                }
+                slot.remove(id);
+                timedOut[0] = true;
+                return null;
+            });
+            if (timedOut[0])
+            {
+                changeStatus(driverId, OnlineStatus.OFFLINE);
+                expired.increment();
+            }
+        }
+    }
+
+
+    /**
+     * Writes the pending status changes, {@link #MAX_STATUS_BATCH_SIZE} drivers per statement and transaction.
+     */
+    public void flush()
+    {
+        flushLock.lock();
+        try
+        {
+            Map<OnlineStatus, List<Long>> changes = new EnumMap<>(OnlineStatus.class);
+            pendingStatus.forEach((driverId, status) -> changes.computeIfAbsent(status, s -> new ArrayList<>()).add(driverId));
+            changes.forEach((status, driverIds) -> Lists.partition(driverIds, MAX_STATUS_BATCH_SIZE).forEach(batch -> write(batch, status)));
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+
+    private void write(final List<Long> driverIds, final OnlineStatus status)
+    {
+        try
+        {
+            transactionTemplate.executeWithoutResult(transaction ->
+            {
+                driverRepository.updateOnlineStatus(driverIds, status);
+                driverIds.forEach(driverId -> eventPublisher.publishEvent(DriverChangedEvent.status(driverId, status)));
+            });
+        }
+        catch (RuntimeException e)
+        {
+            LOG.error("Writing the status of {} drivers failed, retrying with the next flush", driverIds.size(), e);
+            return;
+        }
+        // keep changes which were replaced while writing
+        driverIds.forEach(driverId -> pendingStatus.remove(driverId, status));
+    }
+
+
+    /**
+     * Starts the heartbeat timeout of a driver which is online in the database already, e.g. because it was created
+     * online, without changing its status. Renews the timeout if the driver is tracked.
+     *
+     * @param driverId
+     * @return true if the driver wasn't tracked yet
+     */
+    public boolean track(final long driverId)
+    {
+        final boolean[] added = new boolean[1];
+        deadlines.compute(driverId, (id, deadline) ->
+        {
+            added[0] = deadline == null;
+            return reschedule(id, deadline);
+        });
+        return added[0];
+    }
+
+
+    private void untrack(final long driverId)
+    {
+        deadlines.computeIfPresent(driverId, (id, deadline) ->
+        {
+            wheel.get((int) (deadline & mask)).remove(id);
+            return null;
+        });
+    }
+
+
+    private Long reschedule(final Long driverId, final Long deadline)
+    {
+        if (deadline != null)
+        {
+            wheel.get((int) (deadline & mask)).remove(driverId);
+        }
+        long next = currentTick + timeoutTicks;
+        wheel.get((int) (next & mask)).add(driverId);
+        return next;
+    }
+
+
+    private void changeStatus(final long driverId, final OnlineStatus status)
+    {
+        pendingStatus.put(driverId, status);
+        driverLocationIndex.updateOnlineStatus(driverId, status);
+    }
+
+
+    private void requireActiveDriver(final long driverId) throws EntityNotFoundException
+    {
+        if (driverRepository.findOnlineStatusOfActiveDriver(driverId).isEmpty())
+        {
+            throw new EntityNotFoundException("Could not find entity with id: " + driverId);
+        }
+    }
+
+}
@@ -1,27 +1,56 @@
 package com.myapp.service.driver;
 
+import com.myapp.dataaccessobject.DriverSummary;
 import com.myapp.domainobject.CarDO;
 import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.LocationUpdate;
 import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.exception.CarAlreadyInUseException;
 import com.myapp.exception.ConstraintsViolationException;
 import com.myapp.exception.EntityNotFoundException;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface DriverService
 {
 
     DriverDO find(Long driverId) throws EntityNotFoundException;
 
+    Map<Long, DriverSummary> findByIds(Collection<Long> driverIds) throws ConstraintsViolationException;
+
     DriverDO create(DriverDO driverDO) throws ConstraintsViolationException;
 
+    List<BatchItemStatus> createAll(List<DriverDO> drivers) throws ConstraintsViolationException;
+
     void delete(Long driverId) throws EntityNotFoundException;
 
-    void updateLocation(long driverId, double longitude, double latitude) throws EntityNotFoundException, ConstraintsViolationException;
+    BatchItemStatus updateLocation(long driverId, double longitude, double latitude, ZonedDateTime timestamp)
+        throws EntityNotFoundException, ConstraintsViolationException;
+
+    List<BatchItemStatus> updateLocations(List<LocationUpdate> updates) throws ConstraintsViolationException;
+
+    void assignCar(long driverId, CarDO carDO) throws EntityNotFoundException, ConstraintsViolationException, CarAlreadyInUseException;
 
-    void updateCar(long driverId, CarDO carDO) throws EntityNotFoundException, ConstraintsViolationException;
+    void releaseCar(long driverId, CarDO carDO) throws EntityNotFoundException, ConstraintsViolationException;
 
     List<DriverDO> find(OnlineStatus onlineStatus);
 
+    List<DriverDO> findNearby(double latitude, double longitude, double radiusMeters, OnlineStatus onlineStatus, int limit)
+        throws ConstraintsViolationException;
+
+    List<DriverSummary> findInArea(BoundingBox boundingBox, OnlineStatus onlineStatus, Long afterId, int limit)
+        throws ConstraintsViolationException;
+
+    List<DriverSummary> findDrivers(OnlineStatus onlineStatus, String username, Boolean deleted, Long afterId, int limit)
+        throws ConstraintsViolationException;
+
+    void streamDrivers(OnlineStatus onlineStatus, String username, Boolean deleted, Consumer<DriverDO> consumer);
+
     Iterable<DriverDO> findAll();
 
 }
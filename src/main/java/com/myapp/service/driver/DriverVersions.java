@@ -0,0 +1,42 @@
+package com.myapp.service.driver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Version counters of the driver resources, for conditional requests. Drivers share {@value #SLOTS} counters by id, so
+ * memory doesn't grow with the fleet; a change of one driver also changes the version of the others in its slot, which
+ * only costs them a full response.
+ */
+@Component
+public class DriverVersions
+{
+
+    static final int SLOTS = 4096;
+
+    private final AtomicLongArray versions = new AtomicLongArray(SLOTS);
+
+
+    public long get(final long driverId)
+    {
+        return versions.get(slot(driverId));
+    }
+
+
+    /**
+     * Counts a change once it is committed, so a version never describes data which isn't visible yet.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDriverChanged(final DriverChangedEvent event)
+    {
+        versions.incrementAndGet(slot(event.getDriverId()));
+    }
+
+
+    private static int slot(final long driverId)
+    {
+        return (int) Math.floorMod(driverId, (long) SLOTS);
+    }
+
+}
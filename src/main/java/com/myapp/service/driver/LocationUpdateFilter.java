@@ -0,0 +1,105 @@
+package com.myapp.service.driver;
+
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.domainvalue.LocationUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ingestion filter for location updates, in front of the database writes. An update is suppressed if the driver moved
+ * less than {@code min-distance-meters} and it was reported less than {@code min-interval-seconds} after the last
+ * accepted update, e.g. for a parked car. An update reported before the last accepted one, e.g. delivered out of order
+ * by a flaky mobile network, is stale.
+ * <p/>
+ * Only the last accepted update per driver on this instance is known here; an update older than a position written by
+ * another instance is rejected by the conditional update of the database. The outcomes are counted in
+ * {@code myapp.driver.location.filter}, tagged with {@code result}.
+ */
+@Component
+@ConditionalOnProperty(name = "myapp.driver.location.filter.enabled", havingValue = "true")
+public class LocationUpdateFilter
+{
+
+    private final ConcurrentMap<Long, LocationUpdate> accepted = new ConcurrentHashMap<>();
+
+    private final Map<BatchItemStatus, Counter> counters = new EnumMap<>(BatchItemStatus.class);
+
+    private final double minDistanceMeters;
+
+    private final Duration minInterval;
+
+
+    public LocationUpdateFilter(
+        @Value("${myapp.driver.location.filter.min-distance-meters:10}") final double minDistanceMeters,
+        @Value("${myapp.driver.location.filter.min-interval-seconds:30}") final long minIntervalSeconds,
+        final MeterRegistry meterRegistry)
+    {
+        this.minDistanceMeters = minDistanceMeters;
+        this.minInterval = Duration.ofSeconds(minIntervalSeconds);
+        counters.put(BatchItemStatus.OK, counter(meterRegistry, "accepted"));
+        counters.put(BatchItemStatus.SUPPRESSED, counter(meterRegistry, "suppressed"));
+        counters.put(BatchItemStatus.STALE, counter(meterRegistry, "stale"));
+    }
+
+
+    /**
+     * Decides whether the update is written. An accepted update becomes the reference for the next ones of the driver.
+     *
+     * @return {@link BatchItemStatus#OK} if the update should be written, {@link BatchItemStatus#SUPPRESSED} or
+     * {@link BatchItemStatus#STALE} if it should be dropped.
+     */
+    public BatchItemStatus check(final LocationUpdate update)
+    {
+        final BatchItemStatus[] status = new BatchItemStatus[1];
+        accepted.compute(update.getDriverId(), (driverId, last) ->
+        {
+            status[0] = decide(last, update);
+            return status[0] == BatchItemStatus.OK ? update : last;
+        });
+        counters.get(status[0]).increment();
+        return status[0];
+    }
+
+
+    /**
+     * Drops the last accepted update of a driver, e.g. because the driver doesn't exist.
+     */
+    public void forget(final long driverId)
+    {
+        accepted.remove(driverId);
+    }
+
+
+    private BatchItemStatus decide(final LocationUpdate last, final LocationUpdate update)
+    {
+        if (last == null)
+        {
+            return BatchItemStatus.OK;
+        }
+        if (update.getTimestamp().isBefore(last.getTimestamp()))
+        {
+            return BatchItemStatus.STALE;
+        }
+        boolean moved = last.getCoordinate().distanceTo(update.getCoordinate()) >= minDistanceMeters;
+        boolean due = Duration.between(last.getTimestamp(), update.getTimestamp()).compareTo(minInterval) >= 0;
+        return moved || due ? BatchItemStatus.OK : BatchItemStatus.SUPPRESSED;
+    }
+
+
+    private static Counter counter(final MeterRegistry meterRegistry, final String result)
+    {
+        return Counter.builder("myapp.driver.location.filter")
+            .description("Location updates checked by the ingestion filter")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.myapp.service.driver;
+
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.LocationUpdate;
+import com.myapp.exception.LocationBufferFullException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind buffer for driver locations. Only the latest position per driver is kept; a background thread writes
+ * the buffered positions in batches every flush interval.
+ * <p/>
+ * The buffer holds at most {@code capacity} drivers. When it is full, the reporting thread flushes it itself
+ * (backpressure) and is rejected if that doesn't free any room, e.g. because the database is down.
+ * Remaining positions are written when the application shuts down.
+ * <p/>
+ * Every batch is written in a new transaction, also when a full buffer is flushed by a reporting thread inside its own
+ * transaction: a rollback of the caller must not take back positions which already left the buffer.
+ * <p/>
+ * Such a flush takes a second connection while the reporting thread still holds the connection of its transaction,
+ * and so do the reporting threads waiting for the flush lock. The connection pool must therefore be larger than the
+ * number of request threads reporting positions at the same time; otherwise the flush waits for the pool's connection
+ * timeout, fails and the report is rejected with a {@link LocationBufferFullException}.
+ */
+@Component
+@ConditionalOnProperty(name = "myapp.driver.location.write-behind.enabled", havingValue = "true")
+public class LocationWriteBehindBuffer
+{
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocationWriteBehindBuffer.class);
+
+    private final ConcurrentMap<Long, LocationUpdate> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final DriverRepository driverRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int capacity;
+
+    private final long flushIntervalMillis;
+
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+
+
+    public LocationWriteBehindBuffer(
+        final DriverRepository driverRepository,
+        final PlatformTransactionManager transactionManager,
+        @Value("${myapp.driver.location.write-behind.capacity:100000}") final int capacity,
+        @Value("${myapp.driver.location.write-behind.flush-interval-millis:1000}") final long flushIntervalMillis,
+        @Value("${myapp.driver.location.write-behind.batch-size:500}") final int batchSize)
+    {
+        this.driverRepository = driverRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.capacity = capacity;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.batchSize = batchSize;
+    }
+
+
+    @PostConstruct
+    public void start()
+    {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "location-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    @PreDestroy
+    public void stop() throws InterruptedException
+    {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        if (!pending.isEmpty())
+        {
+            LOG.error("{} buffered driver locations could not be written on shutdown", pending.size());
+        }
+    }
+
+
+    /**
+     * Buffers a position, replacing an older buffered position of the same driver.
+     *
+     * @throws LocationBufferFullException if the buffer stays full after flushing it.
+     */
+    public void offer(final LocationUpdate update)
+    {
+        if (pending.size() >= capacity && !pending.containsKey(update.getDriverId()))
+        {
+            flush();
+            if (pending.size() >= capacity)
+            {
+                throw new LocationBufferFullException("Location buffer is full, " + pending.size() + " positions not written yet");
+            }
+        }
+        pending.merge(update.getDriverId(), update, LocationUpdate::latest);
+    }
+
+
+    /**
+     * @return the buffered position of the driver, or null if everything has been written already.
+     */
+    public LocationUpdate get(final long driverId)
+    {
+        return pending.get(driverId);
+    }
+
+
+    /**
+     * Drops the buffered position of the driver if it isn't newer than an update written by another path, so a
+     * later flush can't overwrite a more recent position.
+     */
+    public void discardUpTo(final LocationUpdate written)
+    {
+        pending.computeIfPresent(written.getDriverId(), (driverId, buffered) -> written.latest(buffered) == written ? null : buffered);
+    }
+
+
+    public int size()
+    {
+        return pending.size();
+    }
+
+
+    /**
+     * Writes all buffered positions, {@code batchSize} drivers per transaction. Positions which fail to be written
+     * stay in the buffer and are retried with the next flush.
+     */
+    public void flush()
+    {
+        flushLock.lock();
+        try
+        {
+            List<LocationUpdate> batch = new ArrayList<>(batchSize);
+            for (LocationUpdate update : pending.values())
+            {
+                batch.add(update);
+                if (batch.size() == batchSize)
+                {
+                    write(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty())
+            {
+                write(batch);
+            }
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+
+    private void write(final List<LocationUpdate> batch)
+    {
+        Map<Long, LocationUpdate> updates = new HashMap<>();
+        batch.forEach(update -> updates.put(update.getDriverId(), update));
+        try
+        {
+            transactionTemplate.executeWithoutResult(status ->
+            {
+                for (DriverDO driverDO : driverRepository.findAllById(updates.keySet()))
+                {
+                    LocationUpdate update = updates.get(driverDO.getId());
+                    if (driverDO.getDateCoordinateUpdated() == null || !driverDO.getDateCoordinateUpdated().isAfter(update.getTimestamp()))
+                    {
+                        driverDO.setCoordinate(update.getCoordinate(), update.getTimestamp());
+                    }
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            LOG.error("Writing {} buffered driver locations failed, retrying with the next flush", batch.size(), e);
+            return;
+        }
+        // keep positions which were replaced while writing
+        batch.forEach(update -> pending.remove(update.getDriverId(), update));
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.myapp.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded ring of access log records for many request threads and one writer thread. The records are allocated once;
+ * a request thread claims a free slot, copies the request data into it and publishes it, without locking or
+ * allocating. If the ring is full the record is dropped and counted instead of making the request wait.
+ */
+public class AccessLogBuffer
+{
+
+    private final Record[] slots;
+
+    /** sequence of the record last published in each slot */
+    private final AtomicLongArray published;
+
+    private final int mask;
+
+    /** next sequence to claim by a request thread */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** next sequence to read, only written by the writer thread */
+    private volatile long head;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+
+    /**
+     * @param capacity - number of records, rounded up to a power of two
+     */
+    public AccessLogBuffer(final int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Record[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++)
+        {
+            slots[i] = new Record();
+            published.set(i, -1);
+        }
+    }
+
+
+    /**
+     * Adds a record, called by the request threads.
+     *
+     * @return false if the ring is full and the record was dropped
+     */
+    public boolean offer(
+        final long timestampMillis, final String method, final String uri, final int status, final long durationMicros,
+        final String remoteAddress, final String exception)
+    {
+        long sequence;
+        do
+        {
+            sequence = tail.get();
+            if (sequence - head >= slots.length)
+            {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        Record record = slots[index];
+        record.timestampMillis = timestampMillis;
+        record.method = method;
+        record.uri = uri;
+        record.status = status;
+        record.durationMicros = durationMicros;
+        record.remoteAddress = remoteAddress;
+        record.exception = exception;
+        published.set(index, sequence);
+        return true;
+    }
+
+
+    /**
+     * Hands the published records in order to the consumer, called by the writer thread only. The records are reused
+     * once this method returns, so the consumer has to copy what it needs.
+     *
+     * @param consumer
+     * @param maxRecords - upper limit of records to drain
+     * @return the number of drained records
+     */
+    public int drain(final Consumer<Record> consumer, final int maxRecords)
+    {
+        long sequence = head;
+        int count = 0;
+        while (count < maxRecords && published.get((int) (sequence & mask)) == sequence)
+        {
+            consumer.accept(slots[(int) (sequence & mask)]);
+            sequence++;
+            count++;
+        }
+        head = sequence;
+        return count;
+    }
+
+
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
+
+    public int size()
+    {
+        return (int) (tail.get() - head);
+    }
+
+
+    public int capacity()
+    {
+        return slots.length;
+    }
+
+
+    /**
+     * One access log line, with a fixed set of fields.
+     */
+    public static final class Record
+    {
+        private long timestampMillis;
+        private String method;
+        private String uri;
+        private int status;
+        private long durationMicros;
+        private String remoteAddress;
+        private String exception;
+
+
+        public long getTimestampMillis()
+        {
+            return timestampMillis;
+        }
+
+
+        public String getMethod()
+        {
+            return method;
+        }
+
+
+        public String getUri()
+        {
+            return uri;
+        }
+
+
+        public int getStatus()
+        {
+            return status;
+        }
+
+
+        public long getDurationMicros()
+        {
+            return durationMicros;
+        }
+
+
+        public String getRemoteAddress()
+        {
+            return remoteAddress;
+        }
+
+
+        /**
+         * @return class name of the exception the request failed with, or null
+         */
+        public String getException()
+        {
+            return exception;
+        }
+    }
+
+}
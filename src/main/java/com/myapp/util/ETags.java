@@ -0,0 +1,31 @@
+package com.myapp.util;
+
+import java.util.UUID;
+
+/**
+ * Strong entity tags built from in-memory version counters. The counters start at zero with every start of the
+ * application and are kept per instance, so every tag contains a random id of this instance: a tag from another
+ * instance or an earlier start never matches, it only costs a full response.
+ */
+public final class ETags
+{
+
+    private static final String INSTANCE_ID = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+
+
+    private ETags()
+    {
+    }
+
+
+    /**
+     * @param resource - name of the versioned resource
+     * @param version  - counter which grows with every change of the resource
+     * @return the tag without quotes, as expected by {@link org.springframework.web.context.request.WebRequest#checkNotModified(String)}
+     */
+    public static String of(final String resource, final long version)
+    {
+        return resource + "-" + INSTANCE_ID + "-" + version;
+    }
+
+}
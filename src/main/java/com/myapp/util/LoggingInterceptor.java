@@ -1,35 +1,194 @@
 package com.myapp.util;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * Access log. The request thread only copies the request data into an {@link AccessLogBuffer}; a background thread
+ * formats the records and writes them in batches to the {@code com.myapp.accesslog} logger.
+ * <p/>
+ * Successful requests are sampled with {@code myapp.access-log.sample-rate}, failed (status 400 and above, or an
+ * exception) and slow requests are always logged. Records which don't fit into the buffer are dropped and counted.
+ */
+@Component
 public class LoggingInterceptor implements HandlerInterceptor
 {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoggingInterceptor.class);
 
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("com.myapp.accesslog");
+
+    private static final String START_ATTRIBUTE = LoggingInterceptor.class.getName() + ".start";
+
+    static final int BATCH_SIZE = 256;
+
+    private final AccessLogBuffer buffer;
+
+    private final double sampleRate;
+
+    private final long slowRequestNanos;
+
+    private final long idleWaitNanos;
+
+    private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 128);
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    private long reportedDropped;
+
+
+    public LoggingInterceptor(
+        @Value("${myapp.access-log.capacity:8192}") final int capacity,
+        @Value("${myapp.access-log.sample-rate:1.0}") final double sampleRate,
+        @Value("${myapp.access-log.slow-request-millis:500}") final long slowRequestMillis,
+        @Value("${myapp.access-log.flush-interval-millis:200}") final long flushIntervalMillis,
+        final ObjectProvider<MeterRegistry> meterRegistry)
+    {
+        this.buffer = new AccessLogBuffer(capacity);
+        this.sampleRate = sampleRate;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMillis);
+        this.idleWaitNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        meterRegistry.ifAvailable(registry ->
+        {
+            FunctionCounter.builder("myapp.accesslog.dropped", buffer, AccessLogBuffer::getDropped)
+                .description("Access log records dropped because the buffer was full")
+                .register(registry);
+            Gauge.builder("myapp.accesslog.pending", buffer, AccessLogBuffer::size)
+                .description("Access log records not written yet")
+                .register(registry);
+        });
+    }
+
+
+    @PostConstruct
+    public void start()
+    {
+        running = true;
+        writer = new Thread(this::writeLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+
+    @PreDestroy
+    public void stop() throws InterruptedException
+    {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
 
     @Override
-    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
     {
-        StringBuilder logMessage = new StringBuilder();
-        logMessage.append("method: ").append(request.getMethod()).append("\t");
-        logMessage.append("uri: ").append(request.getRequestURI()).append("\t");
-        logMessage.append("status: ").append(response.getStatus()).append("\t");
-        logMessage.append("remoteAddress: ").append(request.getRemoteAddr()).append("\t");
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
 
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception
+    {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        long durationNanos = start != null ? System.nanoTime() - (Long) start : 0;
+        int status = response.getStatus();
+        boolean alwaysLogged = ex != null || status >= 400 || durationNanos >= slowRequestNanos;
+        if (!alwaysLogged && !sampled())
+        {
+            return;
+        }
         if (ex != null)
         {
-            LoggingInterceptor.LOG.error(logMessage.toString(), ex);
+            // rare, and the stack trace doesn't fit into a record
+            LOG.error("Request {} {} failed", request.getMethod(), request.getRequestURI(), ex);
         }
-        else
+        buffer.offer(System.currentTimeMillis(), request.getMethod(), request.getRequestURI(), status,
+            TimeUnit.NANOSECONDS.toMicros(durationNanos), request.getRemoteAddr(), ex != null ? ex.getClass().getName() : null);
+    }
+
+
+    AccessLogBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+
+    private boolean sampled()
+    {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+
+    private void writeLoop()
+    {
+        while (running)
         {
-            LoggingInterceptor.LOG.info(logMessage.toString());
+            if (writeBatch() == 0)
+            {
+                LockSupport.parkNanos(idleWaitNanos);
+            }
         }
+        while (writeBatch() > 0)
+        {
+            // write what is left on shutdown
+        }
+    }
+
+
+    /**
+     * @return number of written records
+     */
+    int writeBatch()
+    {
+        batch.setLength(0);
+        int count = buffer.drain(this::format, BATCH_SIZE);
+        if (count > 0)
+        {
+            batch.setLength(batch.length() - 1);
+            ACCESS_LOG.info(batch.toString());
+        }
+        long dropped = buffer.getDropped();
+        if (dropped > reportedDropped)
+        {
+            LOG.warn("{} access log records dropped because the buffer was full", dropped - reportedDropped);
+            reportedDropped = dropped;
+        }
+        return count;
+    }
+
 
+    private void format(AccessLogBuffer.Record record)
+    {
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(record.getTimestampMillis()), batch);
+        batch.append(' ').append(record.getMethod())
+            .append(' ').append(record.getUri())
+            .append(' ').append(record.getStatus())
+            .append(' ').append(record.getDurationMicros()).append("us")
+            .append(' ').append(record.getRemoteAddress());
+        if (record.getException() != null)
+        {
+            batch.append(' ').append(record.getException());
+        }
+        batch.append('\n');
     }
 
 }
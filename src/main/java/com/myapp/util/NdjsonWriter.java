@@ -0,0 +1,72 @@
+package com.myapp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import org.springframework.http.MediaType;
+
+/**
+ * Writes objects as newline delimited JSON, one object per line, flushing the underlying stream every
+ * {@link #FLUSH_INTERVAL} rows so clients receive data while the export is still running.
+ */
+public class NdjsonWriter
+{
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    static final int FLUSH_INTERVAL = 100;
+
+    private final ObjectMapper objectMapper;
+
+    private final OutputStream outputStream;
+
+    private int pendingRows;
+
+
+    public NdjsonWriter(final ObjectMapper objectMapper, final OutputStream outputStream)
+    {
+        this.objectMapper = objectMapper;
+        this.outputStream = outputStream;
+    }
+
+
+    /**
+     * Writes one row. Declared without checked exceptions so it can be used as a row callback.
+     *
+     * @throws UncheckedIOException if the client went away or the value can't be serialized.
+     */
+    public void write(final Object value)
+    {
+        try
+        {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+            if (++pendingRows >= FLUSH_INTERVAL)
+            {
+                flush();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    public void flush()
+    {
+        try
+        {
+            outputStream.flush();
+            pendingRows = 0;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
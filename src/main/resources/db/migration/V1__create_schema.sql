@@ -0,0 +1,47 @@
+-- Schema of CarDO and DriverDO, validated by Hibernate at start (spring.jpa.hibernate.ddl-auto=validate).
+
+create sequence car_seq start with 1000 increment by 50;
+
+create sequence driver_seq start with 1000 increment by 50;
+
+create table car (
+    car_id bigint not null,
+    convertible boolean,
+    date_created timestamp(6) with time zone not null,
+    deleted boolean not null,
+    engine_type enum ('ELECTRIC', 'HYBRID', 'GAS') not null,
+    license_plate varchar(255) not null,
+    manufacturer varchar(255) not null,
+    rating integer not null,
+    seat_count integer not null,
+    constraint pk_car primary key (car_id),
+    constraint uc_license_plate unique (license_plate)
+);
+
+create table driver (
+    id bigint not null,
+    car_id bigint,
+    date_coordinate_updated timestamp(6) with time zone,
+    date_created timestamp(6) with time zone not null,
+    deleted boolean not null,
+    latitude double precision,
+    longitude double precision,
+    online_status enum ('ONLINE', 'OFFLINE') not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    constraint pk_driver primary key (id),
+    constraint uc_username unique (username),
+    -- also the index for looking up the driver of a car: the entity graphs and joins of CarRepository, and the check
+    -- of DriverRepository.assignCar that no other driver has the car
+    constraint uc_car unique (car_id),
+    constraint fk_driver_car foreign key (car_id) references car (car_id)
+);
+
+create index idx_driver_location on driver (latitude, longitude);
+
+-- The position of a driver as GEOMETRY point, kept in sync with the latitude and longitude columns by the database,
+-- with an R-tree index for the spatial queries of DriverRepository. Not mapped by DriverDO.
+alter table driver add column location geometry(point)
+    generated always as (cast('POINT(' || longitude || ' ' || latitude || ')' as geometry(point)));
+
+create spatial index idx_driver_spatial_location on driver (location);
@@ -0,0 +1,9 @@
+-- Indexes for the filters of DriverRepository. Both end with the id, so the keyset pages (order by id, id > :afterId)
+-- are read in index order without sorting.
+-- QueryPlanTest fails if a repository method scans a table it should reach through an index.
+
+-- findByOnlineStatus, and the driver pages filtered by online status and deleted flag
+create index idx_driver_online_status_deleted on driver (online_status, deleted, id);
+
+-- driver pages filtered by the deleted flag only
+create index idx_driver_deleted on driver (deleted, id);
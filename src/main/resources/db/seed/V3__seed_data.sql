@@ -1,6 +1,5 @@
-/**
- * CREATE Script for init of DB
- */
+-- Sample drivers and a car for local runs and the load tools. Kept apart from the schema in db/migration, so tests
+-- can migrate an empty database with spring.flyway.locations=classpath:db/migration.
 
 -- Create 3 OFFLINE drivers
 
@@ -27,13 +26,13 @@ insert into driver (id, date_created, deleted, online_status, password, username
 
 -- Create 1 OFFLINE driver with coordinate(longitude=9.5&latitude=55.954)
 
-insert into driver (id, date_created, deleted, online_status, password, username) values (7, now(), false, 'OFFLINE',
-'driver07pw', 'driver07');
+insert into driver (id, date_created, deleted, online_status, password, username, latitude, longitude) values (7, now(),
+false, 'OFFLINE', 'driver07pw', 'driver07', 55.954, 9.5);
 
 -- Create 1 ONLINE driver with coordinate(longitude=9.5&latitude=55.954)
 
-insert into driver (id, date_created, deleted, online_status, password, username) values (8, now(), false, 'ONLINE',
-'driver08pw', 'driver08');
+insert into driver (id, date_created, deleted, online_status, password, username, latitude, longitude) values (8, now(),
+false, 'ONLINE', 'driver08pw', 'driver08', 55.954, 9.5);
 
 insert into car (car_id, license_plate, seat_count, convertible, rating, engine_type, manufacturer, date_created, deleted)
 values
@@ -0,0 +1,105 @@
+package com.myapp;
+
+import com.myapp.controller.BulkController;
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.domainvalue.EngineType;
+import com.myapp.service.car.CarService;
+import com.myapp.service.driver.DriverService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@WebMvcTest(BulkController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class BulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CarService carService;
+
+    @MockBean
+    private DriverService driverService;
+
+    @Test
+    public void createCars() throws Exception {
+
+        Mockito.when(carService.createAll(Mockito.anyList()))
+                .thenReturn(Arrays.asList(BatchItemStatus.OK, BatchItemStatus.DUPLICATE));
+
+        String batch = "[{\"licensePlate\":\"546PW\",\"seatCount\":4,\"rating\":10,\"engineType\":\"GAS\",\"manufacturer\":\"MERCEDES\"},"
+                + "{\"licensePlate\":\"4545PWR\",\"seatCount\":4,\"rating\":9,\"engineType\":\"GAS\",\"manufacturer\":\"MERCEDES\"}]";
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/v1/cars:batch")
+                .accept(MediaType.APPLICATION_JSON).content(batch)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        String expected = "[{key:\"546PW\",status:OK},{key:\"4545PWR\",status:DUPLICATE}]";
+        JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+    }
+
+    @Test
+    public void lookupCars() throws Exception {
+        Map<String, CarDO> cars = new LinkedHashMap<>();
+        cars.put("546PW", new CarDO("546PW", 4, false, 10, EngineType.GAS, "MERCEDES"));
+        Mockito.when(carService.findByLicensePlates(List.of("546PW", "UNKNOWN"))).thenReturn(cars);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/v1/cars:lookup")
+                .accept(MediaType.APPLICATION_JSON).content("[\"546PW\",\"UNKNOWN\"]")
+                .contentType(MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        String expected = "{found:[{licensePlate:\"546PW\",seatCount:4}],missing:[UNKNOWN]}";
+        JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+    }
+
+    @Test
+    public void createDriversReportsInvalidItems() throws Exception {
+
+        Mockito.when(driverService.createAll(Mockito.argThat(drivers -> drivers.size() == 2)))
+                .thenReturn(Arrays.asList(BatchItemStatus.OK, BatchItemStatus.DUPLICATE));
+
+        String batch = "[{\"username\":\"driver20\",\"password\":\"pw\"},"
+                + "{\"username\":\"driver21\"},"
+                + "{\"username\":\"driver01\",\"password\":\"pw\"}]";
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/v1/drivers:batch")
+                .accept(MediaType.APPLICATION_JSON).content(batch)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        String expected = "[{key:\"driver20\",status:OK},"
+                + "{key:\"driver21\",status:INVALID,message:\"Password can not be null!\"},"
+                + "{key:\"driver01\",status:DUPLICATE}]";
+        JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+    }
+}
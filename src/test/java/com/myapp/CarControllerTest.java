@@ -1,9 +1,12 @@
 package com.myapp;
 
 import com.myapp.controller.CarController;
+import com.myapp.dataaccessobject.CarSummary;
 import com.myapp.domainobject.CarDO;
 import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.GeoCoordinate;
 import com.myapp.service.car.CarService;
+import com.myapp.util.NdjsonWriter;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.skyscreamer.jsonassert.JSONAssert;
@@ -11,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -20,6 +24,7 @@ import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.Arrays;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -87,11 +92,48 @@ public class CarControllerTest {
         assertEquals(HttpStatus.OK.value(), response.getStatus());
     }
 
+    @Test
+    public void getCarNotModified() throws Exception {
+        Mockito.when(carService.getCatalogVersion()).thenReturn(3L);
+        Mockito.when(carService.find(LICENSE_PLATE)).thenReturn(carDOResult);
+
+        MockHttpServletResponse first = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars/" + LICENSE_PLATE)
+                .accept(MediaType.APPLICATION_JSON)).andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse second = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars/" + LICENSE_PLATE)
+                .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+
+        assertEquals(HttpStatus.OK.value(), first.getStatus());
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), second.getStatus());
+        assertEquals("", second.getContentAsString());
+        Mockito.verify(carService, Mockito.times(1)).find(LICENSE_PLATE);
+    }
+
+    @Test
+    public void findAllCarsAfterCatalogChange() throws Exception {
+        Mockito.when(carService.getCatalogVersion()).thenReturn(3L);
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse notModified = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars")
+                .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+        Mockito.when(carService.getCatalogVersion()).thenReturn(4L);
+        MockHttpServletResponse changed = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars")
+                .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), notModified.getStatus());
+        assertEquals(HttpStatus.OK.value(), changed.getStatus());
+        Mockito.verify(carService, Mockito.times(2)).findAllSummaries();
+    }
+
     @Test
     public void findAllCars() throws Exception {
 
-        CarDO car2 = new CarDO("789XY", 2, true, 9, EngineType.ELECTRIC, "TESLA");
-        Mockito.when(carService.findAll()).thenReturn(Arrays.asList(carDOResult, car2));
+        CarSummary car1 = new CarSummary(1L, "546PW", 4, false, 10, EngineType.GAS, "MERCEDES", null, null, null, null);
+        CarSummary car2 = new CarSummary(2L, "789XY", 2, true, 9, EngineType.ELECTRIC, "TESLA",
+                7L, "driver07", "driver07pw", new GeoCoordinate(55.954, 9.5));
+        Mockito.when(carService.findAllSummaries()).thenReturn(Arrays.asList(car1, car2));
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
                 "/v1/cars").accept(
@@ -103,8 +145,34 @@ public class CarControllerTest {
 
         assertEquals(HttpStatus.OK.value(), response.getStatus());
 
-        String expected = "[{\"licensePlate\":\"546PW\",\"seatCount\":4},{\"licensePlate\":\"789XY\",\"seatCount\":2}]";
+        String expected = "[{\"licensePlate\":\"546PW\",\"seatCount\":4},"
+                + "{\"licensePlate\":\"789XY\",\"seatCount\":2,\"driver\":{\"username\":\"driver07\",\"coordinate\":{\"latitude\":55.954}}}]";
         JSONAssert.assertEquals(expected, response.getContentAsString(), false);
     }
 
+    @Test
+    public void streamAllCars() throws Exception {
+
+        CarDO car2 = new CarDO("789XY", 2, true, 9, EngineType.ELECTRIC, "TESLA");
+        Mockito.doAnswer(invocation -> {
+            Consumer<CarDO> consumer = invocation.getArgument(0);
+            consumer.accept(carDOResult);
+            consumer.accept(car2);
+            return null;
+        }).when(carService).streamAll(Mockito.any());
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
+                "/v1/cars").accept(
+                NdjsonWriter.APPLICATION_NDJSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        MockHttpServletResponse response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn().getResponse();
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        JSONAssert.assertEquals("{\"licensePlate\":\"546PW\"}", lines[0], false);
+        JSONAssert.assertEquals("{\"licensePlate\":\"789XY\"}", lines[1], false);
+    }
+
 }
@@ -0,0 +1,77 @@
+package com.myapp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.service.car.CarService;
+import com.myapp.service.driver.DriverService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(classes = MyappServer.class)
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = "spring.flyway.locations=classpath:db/migration")
+public class CarETagTest {
+
+    private static final String LICENSE_PLATE = "ETAG01";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Test
+    public void getCarAfterDriverMoved() throws Exception {
+        DriverDO driver = new DriverDO("etagDriver", "secret");
+        driver.setOnlineStatus(OnlineStatus.ONLINE);
+        driver = driverService.create(driver);
+        carService.create(new CarDO(LICENSE_PLATE, 4, false, 8, EngineType.GAS, "BMW"));
+        carService.addDriver(driver.getId(), LICENSE_PLATE);
+        mockMvc.perform(MockMvcRequestBuilders.put("/v1/drivers/" + driver.getId())
+                .param("longitude", "13.405").param("latitude", "52.52"));
+
+        MockHttpServletResponse first = getCar(null);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(MockMvcRequestBuilders.put("/v1/drivers/" + driver.getId())
+                .param("longitude", "11.582").param("latitude", "48.135"));
+        MockHttpServletResponse second = getCar(etag);
+
+        assertEquals(HttpStatus.OK.value(), second.getStatus());
+        assertNotEquals(etag, second.getHeader(HttpHeaders.ETAG));
+        JsonNode coordinate = objectMapper.readTree(second.getContentAsString()).path("driver").path("coordinate");
+        assertEquals(48.135, coordinate.path("latitude").asDouble());
+        assertEquals(11.582, coordinate.path("longitude").asDouble());
+    }
+
+    private MockHttpServletResponse getCar(String etag) throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/v1/cars/" + LICENSE_PLATE)
+                .accept(MediaType.APPLICATION_JSON);
+        if (etag != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
@@ -1,20 +1,32 @@
 package com.myapp;
 
 import com.myapp.controller.DriverController;
+import com.myapp.dataaccessobject.DriverSummary;
 import com.myapp.domainobject.CarDO;
 import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.domainvalue.BoundingBox;
 import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.GeoCoordinate;
 import com.myapp.domainvalue.OnlineStatus;
 import com.myapp.exception.CarAlreadyInUseException;
+import com.myapp.exception.DriverOfflineException;
 import com.myapp.service.car.CarService;
+import com.myapp.service.driver.DriverChangeBroadcaster;
+import com.myapp.service.driver.DriverChangedEvent;
+import com.myapp.service.driver.DriverPresenceTracker;
 import com.myapp.service.driver.DriverService;
+import com.myapp.service.driver.DriverVersions;
+import com.myapp.util.NdjsonWriter;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -23,10 +35,17 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 @WebMvcTest(DriverController.class)
@@ -42,11 +61,24 @@ public class DriverControllerTest {
     @MockBean
     private CarService carService;
 
+    @MockBean
+    private DriverChangeBroadcaster driverChangeBroadcaster;
+
+    @MockBean
+    private DriverVersions driverVersions;
+
+    @MockBean
+    private DriverPresenceTracker driverPresenceTracker;
+
     DriverDO mockDriver = new DriverDO("user01", "password");
 
     DriverDO mockDriver2 = new DriverDO("user02", "password");
 
-    DriverDO mockDriver3 = new DriverDO("user03", "password");
+    DriverSummary summary = new DriverSummary(11L, "user01", "password", null);
+
+    DriverSummary summary2 = new DriverSummary(12L, "user02", "password", null);
+
+    DriverSummary summary3 = new DriverSummary(13L, "user03", "password", new GeoCoordinate(52.52, 13.405));
 
     CarDO mockCarResult = new CarDO("5432PW", 4, false, 10, EngineType.GAS, "MERCEDES");
 
@@ -67,12 +99,45 @@ public class DriverControllerTest {
         JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
     }
 
+    @Test
+    public void findDriverNotModified() throws Exception {
+        Mockito.when(driverVersions.get(1L)).thenReturn(7L);
+        Mockito.when(driverService.find(1L)).thenReturn(mockDriver);
+
+        MockHttpServletResponse first = mockMvc.perform(MockMvcRequestBuilders.get("/v1/drivers/1")
+                .accept(MediaType.APPLICATION_JSON)).andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse notModified = mockMvc.perform(MockMvcRequestBuilders.get("/v1/drivers/1")
+                .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+        Mockito.when(driverVersions.get(1L)).thenReturn(8L);
+        MockHttpServletResponse changed = mockMvc.perform(MockMvcRequestBuilders.get("/v1/drivers/1")
+                .accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), notModified.getStatus());
+        assertEquals(HttpStatus.OK.value(), changed.getStatus());
+        Mockito.verify(driverService, Mockito.times(2)).find(1L);
+    }
+
+    @Test
+    public void findDriversById() throws Exception {
+        Map<Long, DriverSummary> drivers = new LinkedHashMap<>();
+        drivers.put(12L, summary2);
+        drivers.put(11L, summary);
+        Mockito.when(driverService.findByIds(List.of(12L, 99L, 11L))).thenReturn(drivers);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
+                "/v1/drivers?ids=12,99,11").accept(
+                MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        String expected = "{found:[{id:12,username:user02},{id:11,username:user01}],missing:[\"99\"]}";
+        JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+    }
+
     @Test
     public void findDriversFilteringByUsername() throws Exception {
-        List<DriverDO> drivers = new ArrayList<>();
-        drivers.add(mockDriver);
-        drivers.add(mockDriver2);
-        Mockito.when(driverService.findAll()).thenReturn(drivers);
+        Mockito.when(driverService.findDrivers(null, "user02", null, null, 100)).thenReturn(List.of(summary2));
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
                 "/v1/drivers?username=user02").accept(
@@ -88,13 +153,7 @@ public class DriverControllerTest {
 
     @Test
     public void findDriversFilteringByOnlineStatusOnline() throws Exception {
-        List<DriverDO> drivers = new ArrayList<>();
-        drivers.add(mockDriver);
-        drivers.add(mockDriver2);
-        drivers.add(mockDriver3);
-        mockDriver3.setOnlineStatus(OnlineStatus.ONLINE);
-
-        Mockito.when(driverService.findAll()).thenReturn(drivers);
+        Mockito.when(driverService.findDrivers(OnlineStatus.ONLINE, null, null, null, 100)).thenReturn(List.of(summary3));
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
                 "/v1/drivers?onlineStatus=ONLINE").accept(
@@ -103,20 +162,18 @@ public class DriverControllerTest {
         MvcResult result = mockMvc.perform(requestBuilder).andReturn();
 
         System.out.println(result.getResponse());
-        String expected = "[{username:user03,password:password}]";
+        String expected = "[{username:user03,password:password,coordinate:{latitude:52.52,longitude:13.405}}]";
 
         JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
     }
 
     @Test
     public void findDriversFilteringByOnlineStatusOffline() throws Exception {
-        List<DriverDO> drivers = new ArrayList<>();
-        drivers.add(mockDriver);
-        drivers.add(mockDriver2);
-        drivers.add(mockDriver3);
-        mockDriver3.setOnlineStatus(OnlineStatus.ONLINE);
+        List<DriverSummary> drivers = new ArrayList<>();
+        drivers.add(summary);
+        drivers.add(summary2);
 
-        Mockito.when(driverService.findAll()).thenReturn(drivers);
+        Mockito.when(driverService.findDrivers(OnlineStatus.OFFLINE, null, null, null, 100)).thenReturn(drivers);
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
                 "/v1/drivers?onlineStatus=OFFLINE").accept(
@@ -128,6 +185,64 @@ public class DriverControllerTest {
         String expected = "[{username:user01,password:password},{username:user02,password:password}]";
 
         JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+        assertNull(result.getResponse().getHeader(DriverController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void findDriversFullPageReturnsNextCursor() throws Exception {
+        Mockito.when(driverService.findDrivers(null, null, false, 10L, 2)).thenReturn(List.of(summary, summary2));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
+                "/v1/drivers?deleted=false&afterId=10&limit=2").accept(
+                MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        String expected = "[{username:user01},{username:user02}]";
+
+        JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+        assertEquals("12", result.getResponse().getHeader(DriverController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void findNearbyDrivers() throws Exception {
+        Mockito.when(driverService.findNearby(52.52, 13.405, 500.0, OnlineStatus.ONLINE, 5)).thenReturn(List.of(mockDriver2));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
+                "/v1/drivers/nearby?lat=52.52&lon=13.405&radiusMeters=500&onlineStatus=ONLINE&limit=5").accept(
+                MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        String expected = "[{username:user02,password:password}]";
+
+        JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+    }
+
+    @Test
+    public void findDriversInArea() throws Exception {
+        Mockito.when(driverService.findInArea(Mockito.argThat(box -> box.contains(52.52, 13.405)), Mockito.isNull(), Mockito.isNull(), Mockito.eq(100)))
+                .thenReturn(List.of(summary));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
+                "/v1/drivers/area?minLat=52.4&minLon=13.3&maxLat=52.6&maxLon=13.5").accept(
+                MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        JSONAssert.assertEquals("[{username:user01}]", result.getResponse().getContentAsString(), false);
+    }
+
+    @Test
+    public void findDriversInInvalidArea() throws Exception {
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(
+                "/v1/drivers/area?minLat=52.6&minLon=13.3&maxLat=52.4&maxLon=13.5").accept(
+                MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus());
     }
 
     @Test
@@ -152,6 +267,53 @@ public class DriverControllerTest {
         assertEquals(HttpStatus.CREATED.value(), response.getStatus());
     }
 
+    @Test
+    public void updateLocationWithClientTimestamp() throws Exception {
+
+        ZonedDateTime timestamp = ZonedDateTime.parse("2024-05-01T10:00:00Z");
+        Mockito.when(driverService.updateLocation(Mockito.eq(1L), Mockito.eq(13.405), Mockito.eq(52.52),
+                Mockito.argThat(time -> time != null && time.toInstant().equals(timestamp.toInstant()))))
+                .thenReturn(BatchItemStatus.STALE);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put("/v1/drivers/1")
+                .param("longitude", "13.405")
+                .param("latitude", "52.52")
+                .param("timestamp", "2024-05-01T10:00:00Z")
+                .accept(MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        JSONAssert.assertEquals("{key:\"1\",status:STALE}", result.getResponse().getContentAsString(), false);
+    }
+
+    @Test
+    public void updateLocationsBatch() throws Exception {
+
+        Mockito.when(driverService.updateLocations(Mockito.anyList()))
+                .thenReturn(List.of(BatchItemStatus.OK, BatchItemStatus.NOT_FOUND, BatchItemStatus.SUPERSEDED));
+
+        String batch = "[{\"driverId\":1,\"latitude\":52.52,\"longitude\":13.405,\"timestamp\":\"2024-05-01T10:00:00Z\"},"
+                + "{\"driverId\":99,\"latitude\":52.52,\"longitude\":13.405},"
+                + "{\"driverId\":2,\"latitude\":95.0,\"longitude\":13.405},"
+                + "{\"latitude\":52.52,\"longitude\":13.405},"
+                + "{\"driverId\":3,\"longitude\":13.405},"
+                + "{\"driverId\":1,\"latitude\":52.5,\"longitude\":13.4,\"timestamp\":\"2024-05-01T09:59:00Z\"}]";
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/v1/drivers/locations:batch")
+                .accept(MediaType.APPLICATION_JSON).content(batch)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        String expected = "[{key:\"1\",status:OK},{key:\"99\",status:NOT_FOUND},{key:\"2\",status:INVALID},{status:INVALID},"
+                + "{key:\"3\",status:INVALID},{key:\"1\",status:SUPERSEDED}]";
+        JSONAssert.assertEquals(expected, result.getResponse().getContentAsString(), false);
+    }
+
     @Test
     public void selectCar() throws Exception {
 
@@ -190,11 +352,40 @@ public class DriverControllerTest {
         assertEquals("This car is already in use by another driver.", response.getErrorMessage());
     }
 
+    @Test
+    public void goOnlineAndOffline() throws Exception {
+
+        MockHttpServletResponse online = mockMvc.perform(MockMvcRequestBuilders.put("/v1/drivers/1/online")).andReturn().getResponse();
+        MockHttpServletResponse offline = mockMvc.perform(MockMvcRequestBuilders.put("/v1/drivers/1/offline")).andReturn().getResponse();
+
+        assertEquals(HttpStatus.OK.value(), online.getStatus());
+        assertEquals(HttpStatus.OK.value(), offline.getStatus());
+        Mockito.verify(driverPresenceTracker).online(1L);
+        Mockito.verify(driverPresenceTracker).offline(1L);
+    }
+
+    @Test
+    public void heartbeatOfAnOfflineDriver() throws Exception {
+
+        Mockito.doThrow(DriverOfflineException.class).when(driverPresenceTracker).heartbeat(1L);
+
+        MockHttpServletResponse response = mockMvc.perform(MockMvcRequestBuilders.put("/v1/drivers/1/heartbeat")).andReturn().getResponse();
+
+        assertEquals(HttpStatus.CONFLICT.value(), response.getStatus());
+        assertEquals("Driver is offline, go online first.", response.getErrorMessage());
+    }
+
     @Test
     public void deselectCar() throws Exception {
 
         DriverDO mockDriverResult = new DriverDO("user","password");
-        CarDO mockCarResult = new CarDO("5432PW", 4, false, 10, EngineType.GAS, "MERCEDES");
+        DriverSummary summary = new DriverSummary(11L, "user01", "password", null);
+
+    DriverSummary summary2 = new DriverSummary(12L, "user02", "password", null);
+
+    DriverSummary summary3 = new DriverSummary(13L, "user03", "password", new GeoCoordinate(52.52, 13.405));
+
+    CarDO mockCarResult = new CarDO("5432PW", 4, false, 10, EngineType.GAS, "MERCEDES");
 
         Mockito.when(driverService.find(1L)).thenReturn(mockDriverResult);
         Mockito.when(carService.find("5432PW")).thenReturn(mockCarResult);
@@ -211,4 +402,78 @@ public class DriverControllerTest {
         assertEquals(HttpStatus.OK.value(), response.getStatus());
     }
 
+    @Test
+    public void streamDrivers() throws Exception {
+
+        Mockito.doAnswer(invocation -> {
+            Consumer<DriverDO> consumer = invocation.getArgument(3);
+            consumer.accept(mockDriver);
+            consumer.accept(mockDriver2);
+            return null;
+        }).when(driverService).streamDrivers(Mockito.eq(OnlineStatus.OFFLINE), Mockito.isNull(), Mockito.isNull(), Mockito.any());
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/v1/drivers?onlineStatus=OFFLINE")
+                .accept(NdjsonWriter.APPLICATION_NDJSON);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        MockHttpServletResponse response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn().getResponse();
+
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        JSONAssert.assertEquals("{username:user01}", lines[0], false);
+        JSONAssert.assertEquals("{username:user02}", lines[1], false);
+    }
+
+    @Test
+    public void streamChangesInsideBoundingBox() throws Exception {
+        ArgumentCaptor<BoundingBox> boundingBox = ArgumentCaptor.forClass(BoundingBox.class);
+        ArgumentCaptor<DriverChangeBroadcaster.Sink> sink = ArgumentCaptor.forClass(DriverChangeBroadcaster.Sink.class);
+        Mockito.when(driverChangeBroadcaster.subscribe(boundingBox.capture(), sink.capture()))
+                .thenReturn(Mockito.mock(DriverChangeBroadcaster.Subscription.class));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/v1/drivers/stream?minLat=52.4&minLon=13.3&maxLat=52.6&maxLon=13.5")
+                .accept(MediaType.TEXT_EVENT_STREAM);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        sink.getValue().send(List.of(DriverChangedEvent.location(1L, new GeoCoordinate(52.52, 13.405), ZonedDateTime.now())));
+
+        assertTrue(boundingBox.getValue().contains(52.52, 13.405));
+        String content = result.getResponse().getContentAsString();
+        assertTrue(content.contains("event:driver"));
+        assertTrue(content.contains("\"type\":\"LOCATION\""));
+    }
+
+    @Test
+    public void streamChangesCompletesAfterFailedSend() throws Exception {
+        ArgumentCaptor<DriverChangeBroadcaster.Sink> sink = ArgumentCaptor.forClass(DriverChangeBroadcaster.Sink.class);
+        Mockito.when(driverChangeBroadcaster.subscribe(Mockito.isNull(), sink.capture()))
+                .thenReturn(Mockito.mock(DriverChangeBroadcaster.Subscription.class));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/v1/drivers/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        // the client is gone, writing the response fails
+        result.getResponse().setOutputStreamAccessAllowed(false);
+
+        assertThrows(IllegalStateException.class, () -> sink.getValue().send(List.of()));
+        assertTrue(result.getAsyncResult(1000) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void streamChangesWithIncompleteBoundingBox() throws Exception {
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/v1/drivers/stream?minLat=52.4&minLon=13.3")
+                .accept(MediaType.TEXT_EVENT_STREAM);
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus());
+        Mockito.verifyNoInteractions(driverChangeBroadcaster);
+    }
+
 }
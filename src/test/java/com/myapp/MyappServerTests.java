@@ -1,17 +1,43 @@
 package com.myapp;
 
+import com.myapp.metrics.MetricsConfiguration;
+import com.myapp.service.car.CarService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @SpringBootTest(classes = MyappServer.class)
-@TestPropertySource(properties = "spring.sql.init.mode=never")
+@TestPropertySource(properties = "spring.flyway.locations=classpath:db/migration")
 public class MyappServerTests
 {
 
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+
     @Test
     public void contextLoads()
     {
     }
 
+
+    @Test
+    public void serviceCallsAreTimed()
+    {
+        carService.findAll();
+
+        assertEquals(1, meterRegistry.get(MetricsConfiguration.SERVICE_TIMER)
+            .tag("class", "com.myapp.service.car.DefaultCarService")
+            .tag("method", "findAll")
+            .timer()
+            .count());
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.myapp.benchmark;
+
+import com.myapp.MyappServer;
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.service.driver.DriverService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the insert throughput of single creates, one transaction per driver, with the batch create.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = MyappServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"spring.flyway.locations=classpath:db/migration", "spring.jpa.show-sql=false"})
+public class BulkCreateBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkCreateBenchmarkTest.class);
+
+    private static final int ROWS = 5000;
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Test
+    public void singleVersusBatchCreate() throws Exception {
+        // warm up both paths
+        createOneByOne("warmup-single", 500);
+        createInBatches("warmup-batch", 500);
+
+        long start = System.nanoTime();
+        createOneByOne("single", ROWS);
+        double singleRowsPerSecond = rowsPerSecond(start);
+
+        start = System.nanoTime();
+        createInBatches("batch", ROWS);
+        double batchRowsPerSecond = rowsPerSecond(start);
+
+        LOG.info("single create: {} rows/s, batch create: {} rows/s, speedup {}x",
+                Math.round(singleRowsPerSecond), Math.round(batchRowsPerSecond),
+                String.format("%.1f", batchRowsPerSecond / singleRowsPerSecond));
+        assertEquals(2 * ROWS + 1000, driverRepository.count());
+    }
+
+    private void createOneByOne(String prefix, int rows) throws Exception {
+        for (int i = 0; i < rows; i++) {
+            driverService.create(new DriverDO(prefix + i, "pw"));
+        }
+    }
+
+    private void createInBatches(String prefix, int rows) throws Exception {
+        for (int offset = 0; offset < rows; offset += BATCH_SIZE) {
+            List<DriverDO> drivers = new ArrayList<>(BATCH_SIZE);
+            for (int i = offset; i < Math.min(rows, offset + BATCH_SIZE); i++) {
+                drivers.add(new DriverDO(prefix + i, "pw"));
+            }
+            assertTrue(driverService.createAll(drivers).stream().allMatch(status -> status == BatchItemStatus.OK));
+        }
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return ROWS * 1e9 / (System.nanoTime() - startNanos);
+    }
+}
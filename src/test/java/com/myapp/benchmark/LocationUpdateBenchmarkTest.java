@@ -0,0 +1,130 @@
+package com.myapp.benchmark;
+
+import com.myapp.MyappServer;
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.service.driver.DriverService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares single location updates through the loaded entity (select, dirty check of every column, update) with the
+ * update statement of {@link DriverService#updateLocation}, which takes the online status of drivers with a position
+ * from the location index, so it runs one statement per update once the drivers are indexed.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = MyappServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.locations=classpath:db/migration",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class LocationUpdateBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocationUpdateBenchmarkTest.class);
+
+    private static final int DRIVERS = 1000;
+
+    private static final int UPDATES = 20_000;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void entityVersusSingleStatementUpdate() throws Exception {
+        List<DriverDO> drivers = new ArrayList<>(DRIVERS);
+        for (int i = 0; i < DRIVERS; i++) {
+            drivers.add(new DriverDO("location" + i, "pw"));
+        }
+        driverService.createAll(drivers);
+        long[] driverIds = driverRepository.findPage(null, DRIVERS).stream().mapToLong(DriverDO::getId).toArray();
+        assertEquals(DRIVERS, driverIds.length);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Random random = new Random(42);
+
+        // warm up both paths
+        updateLoadingEntity(transactionTemplate, driverIds, random, 2000);
+        updateWithStatement(driverIds, random, 2000);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        updateLoadingEntity(transactionTemplate, driverIds, random, UPDATES);
+        double entityUpdatesPerSecond = updatesPerSecond(start);
+        double entityStatements = (double) statistics.getPrepareStatementCount() / UPDATES;
+
+        statistics.clear();
+        start = System.nanoTime();
+        updateWithStatement(driverIds, random, UPDATES);
+        double statementUpdatesPerSecond = updatesPerSecond(start);
+        double statementStatements = (double) statistics.getPrepareStatementCount() / UPDATES;
+
+        LOG.info("entity update: {} updates/s, {} statements/update; single-statement update: {} updates/s, "
+                        + "{} statements/update; speedup {}x",
+                Math.round(entityUpdatesPerSecond), String.format("%.1f", entityStatements),
+                Math.round(statementUpdatesPerSecond), String.format("%.1f", statementStatements),
+                String.format("%.1f", statementUpdatesPerSecond / entityUpdatesPerSecond));
+        // drivers missed by the warm-up read their status once
+        assertEquals(1.0, statementStatements, 0.05);
+    }
+
+    /**
+     * The previous implementation of {@link DriverService#updateLocation}, without the location index and events.
+     */
+    private void updateLoadingEntity(TransactionTemplate transactionTemplate, long[] driverIds, Random random, int updates) {
+        for (int i = 0; i < updates; i++) {
+            long driverId = driverIds[random.nextInt(driverIds.length)];
+            GeoCoordinate coordinate = randomPosition(random);
+            transactionTemplate.executeWithoutResult(status -> {
+                DriverDO driver = driverRepository.findById(driverId).orElseThrow();
+                driver.setCoordinate(coordinate, ZonedDateTime.now());
+                driverRepository.save(driver);
+            });
+        }
+    }
+
+    private void updateWithStatement(long[] driverIds, Random random, int updates) throws Exception {
+        for (int i = 0; i < updates; i++) {
+            long driverId = driverIds[random.nextInt(driverIds.length)];
+            GeoCoordinate coordinate = randomPosition(random);
+            driverService.updateLocation(driverId, coordinate.getLongitude(), coordinate.getLatitude(), null);
+        }
+    }
+
+    private static GeoCoordinate randomPosition(Random random) {
+        return new GeoCoordinate(52.3 + random.nextDouble() * 0.4, 13.1 + random.nextDouble() * 0.6);
+    }
+
+    private static double updatesPerSecond(long startNanos) {
+        return UPDATES * 1e9 / (System.nanoTime() - startNanos);
+    }
+}
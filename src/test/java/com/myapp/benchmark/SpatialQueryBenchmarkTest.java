@@ -0,0 +1,116 @@
+package com.myapp.benchmark;
+
+import com.myapp.MyappServer;
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.GeoCoordinate;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the radius query on the spatial index of the {@code location} column with a table scan checking the
+ * distance of every driver, at 100k and 1M drivers spread over Europe. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = MyappServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"spring.flyway.locations=classpath:db/migration", "spring.jpa.show-sql=false"})
+public class SpatialQueryBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpatialQueryBenchmarkTest.class);
+
+    private static final String SPATIAL_INDEX_QUERY = "select count(*) from driver d where "
+            + DriverRepository.LOCATION_IN_ENVELOPE_SQL + " and " + DriverRepository.DISTANCE_METERS_SQL + " <= :radiusMeters";
+
+    private static final String TABLE_SCAN_QUERY = "select count(*) from driver d where "
+            + DriverRepository.DISTANCE_METERS_SQL + " <= :radiusMeters";
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private static final double RADIUS_METERS = 2000;
+
+    private static final int QUERIES = 20;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    public void spatialIndexVersusTableScan() {
+        Random random = new Random(42);
+        List<GeoCoordinate> centers = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            centers.add(randomPosition(random));
+        }
+
+        int drivers = 0;
+        for (int fleetSize : new int[] {100_000, 1_000_000}) {
+            drivers = insertDrivers(random, drivers, fleetSize);
+
+            // warm up both queries, and check that they agree
+            for (GeoCoordinate center : centers) {
+                assertEquals(count(TABLE_SCAN_QUERY, center), count(SPATIAL_INDEX_QUERY, center));
+            }
+
+            double spatialMillis = millisPerQuery(SPATIAL_INDEX_QUERY, centers);
+            double scanMillis = millisPerQuery(TABLE_SCAN_QUERY, centers);
+            LOG.info("{} drivers, {} m radius: spatial index {} ms/query, table scan {} ms/query, speedup {}x",
+                    fleetSize, Math.round(RADIUS_METERS), String.format("%.3f", spatialMillis),
+                    String.format("%.3f", scanMillis), String.format("%.1f", scanMillis / spatialMillis));
+        }
+    }
+
+    private int insertDrivers(Random random, int from, int to) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int offset = from; offset < to; offset += INSERT_BATCH_SIZE) {
+            List<MapSqlParameterSource> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = offset; i < Math.min(to, offset + INSERT_BATCH_SIZE); i++) {
+                GeoCoordinate position = randomPosition(random);
+                batch.add(new MapSqlParameterSource()
+                        .addValue("id", 1_000_000L + i)
+                        .addValue("username", "spatial" + i)
+                        .addValue("latitude", position.getLatitude())
+                        .addValue("longitude", position.getLongitude())
+                        .addValue("now", now));
+            }
+            jdbcTemplate.batchUpdate("insert into driver"
+                    + " (id, date_created, deleted, online_status, password, username, latitude, longitude, date_coordinate_updated)"
+                    + " values (:id, :now, false, 'ONLINE', 'pw', :username, :latitude, :longitude, :now)",
+                    batch.toArray(new MapSqlParameterSource[0]));
+        }
+        return to;
+    }
+
+    private double millisPerQuery(String sql, List<GeoCoordinate> centers) {
+        long start = System.nanoTime();
+        for (GeoCoordinate center : centers) {
+            count(sql, center);
+        }
+        return (System.nanoTime() - start) / 1e6 / centers.size();
+    }
+
+    private long count(String sql, GeoCoordinate center) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("geometry", BoundingBox.around(center, RADIUS_METERS).toWkt())
+                .addValue("latitude", center.getLatitude())
+                .addValue("longitude", center.getLongitude())
+                .addValue("radiusMeters", RADIUS_METERS);
+        return jdbcTemplate.queryForObject(sql, parameters, Long.class);
+    }
+
+    private static GeoCoordinate randomPosition(Random random) {
+        return new GeoCoordinate(36 + random.nextDouble() * 34, -10 + random.nextDouble() * 40);
+    }
+}
@@ -0,0 +1,101 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.controller.mapper.CarMapper;
+import com.myapp.datatransferobject.CarDTO;
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.EngineType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Listing cars with their drivers must not issue one select per car.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {"spring.flyway.locations=classpath:db/migration", "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class CarRepositoryTest {
+
+    private static final int CARS = 10;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < CARS; i++) {
+            CarDO car = entityManager.persist(new CarDO("CAR" + i, 4, false, 5, EngineType.GAS, "MERCEDES"));
+            if (i % 2 == 0) {
+                DriverDO driver = new DriverDO("driver" + i, "pw");
+                driver.setCar(car);
+                entityManager.persist(driver);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void findAll_fetchesDriversInOneQuery() {
+        List<CarDTO> cars = new ArrayList<>();
+        carRepository.findAll().forEach(car -> cars.add(CarMapper.makeCarDTO(car)));
+
+        assertEquals(CARS, cars.size());
+        assertEquals(CARS / 2, cars.stream().filter(car -> car.getDriver() != null).count());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void streamAll_fetchesDriversInOneQuery() {
+        List<CarDTO> cars;
+        try (Stream<CarDO> stream = carRepository.streamAll()) {
+            cars = stream.map(CarMapper::makeCarDTO).collect(Collectors.toList());
+        }
+
+        assertEquals(CARS, cars.size());
+        assertEquals("driver0", cars.get(0).getDriver().getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findByLicensePlate_fetchesDriverInOneQuery() {
+        CarDTO car = CarMapper.makeCarDTO(carRepository.findByLicensePlate("CAR2"));
+
+        assertEquals("driver2", car.getDriver().getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findAllSummaries_readsCarsAndDriversInOneQuery() {
+        List<CarSummary> cars = carRepository.findAllSummaries();
+
+        assertEquals(CARS, cars.size());
+        assertEquals("driver0", cars.get(0).driver().username());
+        assertNull(cars.get(1).driver());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,181 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.GeoPolygon;
+import com.myapp.domainvalue.OnlineStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.flyway.locations=classpath:db/migration")
+public class DriverRepositoryTest {
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 1; i <= 5; i++) {
+            DriverDO driver = new DriverDO("driver0" + i, "pw");
+            driver.setOnlineStatus(i % 2 == 0 ? OnlineStatus.ONLINE : OnlineStatus.OFFLINE);
+            driver.setDeleted(i == 5);
+            driverRepository.save(driver);
+        }
+    }
+
+    @Test
+    public void findPage_appliesAllFilters() {
+        Specification<DriverDO> specification = Specification.where(DriverSpecifications.hasOnlineStatus(OnlineStatus.OFFLINE))
+                .and(DriverSpecifications.isDeleted(false));
+
+        List<DriverDO> result = driverRepository.findPage(specification, 10);
+
+        assertEquals(List.of("driver01", "driver03"), usernames(result));
+    }
+
+    @Test
+    public void findPage_byUsername() {
+        List<DriverDO> result = driverRepository.findPage(DriverSpecifications.hasUsername("driver04"), 10);
+
+        assertEquals(List.of("driver04"), usernames(result));
+    }
+
+    @Test
+    public void findPage_walksKeysetPages() {
+        List<DriverDO> first = driverRepository.findPage(null, 2);
+        List<DriverDO> second = driverRepository.findPage(DriverSpecifications.idGreaterThan(first.get(1).getId()), 2);
+        List<DriverDO> third = driverRepository.findPage(DriverSpecifications.idGreaterThan(second.get(1).getId()), 2);
+
+        assertEquals(List.of("driver01", "driver02"), usernames(first));
+        assertEquals(List.of("driver03", "driver04"), usernames(second));
+        assertEquals(List.of("driver05"), usernames(third));
+    }
+
+    @Test
+    public void findSummaryPage_readsProjections() {
+        saveDriverAt("berlin", 52.52, 13.405, false);
+
+        List<DriverSummary> result = driverRepository.findSummaryPage(
+                Specification.where(DriverSpecifications.isDeleted(false)).and(DriverSpecifications.hasOnlineStatus(OnlineStatus.ONLINE)), 10);
+
+        assertEquals(List.of("driver02", "driver04"), result.stream().map(DriverSummary::username).collect(Collectors.toList()));
+        assertNull(result.get(0).coordinate());
+
+        DriverSummary berlin = driverRepository.findSummaryPage(DriverSpecifications.hasUsername("berlin"), 10).get(0);
+        assertEquals(new GeoCoordinate(52.52, 13.405), berlin.coordinate());
+    }
+
+    @Test
+    public void findInBoundingBox_onlyActiveDriversInside() {
+        saveDriverAt("berlin", 52.52, 13.405, false);
+        saveDriverAt("potsdam", 52.39, 13.06, false);
+        saveDriverAt("deleted-berlin", 52.52, 13.41, true);
+
+        List<DriverDO> result = driverRepository.findInBoundingBox(new BoundingBox(52.4, 13.3, 52.6, 13.5), 10);
+
+        assertEquals(List.of("berlin"), usernames(result));
+        assertEquals(52.52, result.get(0).getCoordinate().getLatitude(), 0.0001);
+    }
+
+    @Test
+    public void findInBoundingBox_acrossAntimeridian() {
+        saveDriverAt("fiji", -17.7, 178.0, false);
+        saveDriverAt("samoa", -13.8, -172.0, false);
+        saveDriverAt("sydney", -33.9, 151.2, false);
+
+        List<DriverDO> result = driverRepository.findInBoundingBox(new BoundingBox(-20, 170, -10, -170), 10);
+
+        assertEquals(List.of("fiji", "samoa"), usernames(result));
+    }
+
+    @Test
+    public void findWithinDistance_checksExactDistance() {
+        saveDriverAt("alexanderplatz", 52.5219, 13.4132, false);
+        saveDriverAt("north-east", 52.55, 13.45, false);
+        saveDriverAt("potsdam", 52.39, 13.06, false);
+        saveDriverAt("deleted-mitte", 52.52, 13.41, true);
+
+        // north-east is inside the bounding box of the circle, but 4.5 km away
+        List<DriverDO> result = driverRepository.findWithinDistance(new GeoCoordinate(52.52, 13.405), 4000, 10);
+
+        assertEquals(List.of("alexanderplatz"), usernames(result));
+        assertEquals(List.of("alexanderplatz", "north-east"),
+                usernames(driverRepository.findWithinDistance(new GeoCoordinate(52.52, 13.405), 5000, 10)));
+    }
+
+    @Test
+    public void findWithinDistance_acrossAntimeridian() {
+        saveDriverAt("east", -17.7, 179.95, false);
+        saveDriverAt("west", -17.7, -179.95, false);
+        saveDriverAt("far-west", -17.7, -179.0, false);
+
+        List<DriverDO> result = driverRepository.findWithinDistance(new GeoCoordinate(-17.7, 179.99), 20000, 10);
+
+        assertEquals(List.of("east", "west"), usernames(result));
+    }
+
+    @Test
+    public void findIntersecting_onlyDriversInsideThePolygon() {
+        saveDriverAt("inside", 52.45, 13.35, false);
+        saveDriverAt("in-envelope-only", 52.58, 13.45, false);
+        saveDriverAt("outside", 53.0, 13.35, false);
+        saveDriverAt("deleted-inside", 52.45, 13.36, true);
+
+        // triangle with its hypotenuse from north-west to south-east
+        GeoPolygon triangle = new GeoPolygon(List.of(
+                new GeoCoordinate(52.4, 13.3), new GeoCoordinate(52.6, 13.3), new GeoCoordinate(52.4, 13.5)));
+        List<DriverDO> result = driverRepository.findIntersecting(triangle);
+
+        assertEquals(List.of("inside"), usernames(result));
+    }
+
+    @Test
+    public void updateOnlineStatus_skipsDeletedDrivers() {
+        List<Long> driverIds = driverRepository.findPage(null, 10).stream().map(DriverDO::getId).collect(Collectors.toList());
+
+        assertEquals(4, driverRepository.updateOnlineStatus(driverIds, OnlineStatus.ONLINE));
+
+        assertEquals(driverIds.subList(0, 4), driverRepository.findIdsByOnlineStatus(OnlineStatus.ONLINE).stream().sorted().collect(Collectors.toList()));
+        assertEquals(OnlineStatus.OFFLINE, driverRepository.findById(driverIds.get(4)).orElseThrow().getOnlineStatus());
+    }
+
+    @Test
+    public void updateLocation_movesDriverWithoutLoadingIt() {
+        saveDriverAt("moving", 52.39, 13.06, false);
+        long driverId = driverRepository.findPage(DriverSpecifications.hasUsername("moving"), 1).get(0).getId();
+        ZonedDateTime timestamp = ZonedDateTime.now();
+
+        assertEquals(1, driverRepository.updateLocation(driverId, 52.52, 13.405, timestamp));
+        assertEquals(0, driverRepository.updateLocation(-1L, 52.52, 13.405, timestamp));
+        assertEquals(0, driverRepository.updateLocation(driverId, 52.39, 13.06, timestamp.minusMinutes(1)));
+
+        DriverDO moved = driverRepository.findById(driverId).orElseThrow();
+        assertEquals(new GeoCoordinate(52.52, 13.405), moved.getCoordinate());
+        assertEquals("pw", moved.getPassword());
+        assertEquals(List.of("moving"), usernames(driverRepository.findWithinDistance(new GeoCoordinate(52.52, 13.405), 100, 10)));
+    }
+
+    private void saveDriverAt(String username, double latitude, double longitude, boolean deleted) {
+        DriverDO driver = new DriverDO(username, "pw");
+        driver.setCoordinate(new GeoCoordinate(latitude, longitude));
+        driver.setDeleted(deleted);
+        driverRepository.save(driver);
+    }
+
+    private static List<String> usernames(List<DriverDO> drivers) {
+        return drivers.stream().map(DriverDO::getUsername).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,218 @@
+package com.myapp.dataaccessobject;
+
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.GeoPolygon;
+import com.myapp.domainvalue.OnlineStatus;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every repository method, captures the statements Hibernate sends and checks their H2 {@code EXPLAIN} plans:
+ * every table must be read through an index condition, except the tables a method reads completely by design.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.flyway.locations=classpath:db/migration",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.myapp.dataaccessobject.QueryPlanTest$RecordingStatementInspector"
+})
+public class QueryPlanTest {
+
+    /**
+     * Listings of the whole catalog, and the car holders read once at start.
+     */
+    private static final Map<String, Set<String>> INTENDED_SCANS = Map.of(
+            "findAll", Set.of("CAR"),
+            "streamAll", Set.of("CAR"),
+            "findAllSummaries", Set.of("CAR"),
+            "findCarAssignments", Set.of("CAR", "DRIVER"));
+
+    /**
+     * A table in a plan, followed by a comment with the index H2 reads it with and the index condition. A table scan
+     * shows up as {@code TABLE.tableScan}, an index read completely has no condition.
+     */
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("\"?PUBLIC\"?\\.\"?(\\w+)\"?(?:\\s+\"?\\w+\"?)?\\s*/\\* PUBLIC\\.([\\w.]+)(:[^*]*)? \\*/");
+
+    private static final GeoCoordinate BERLIN = new GeoCoordinate(52.52, 13.405);
+
+    private static final int DRIVERS = 200;
+
+    private static final int CARS = 20;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private DriverDO driver;
+
+    private CarDO car;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < DRIVERS; i++) {
+            DriverDO persisted = new DriverDO("driver" + i, "pw");
+            persisted.setOnlineStatus(i % 2 == 0 ? OnlineStatus.ONLINE : OnlineStatus.OFFLINE);
+            persisted.setCoordinate(new GeoCoordinate(BERLIN.getLatitude() + i * 0.001, BERLIN.getLongitude()));
+            if (i < CARS) {
+                persisted.setCar(entityManager.persist(new CarDO("CAR" + i, 4, false, 5, EngineType.GAS, "MERCEDES")));
+            }
+            driver = entityManager.persist(persisted);
+        }
+        car = entityManager.persist(new CarDO("FREE", 4, false, 5, EngineType.ELECTRIC, "TESLA"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void everyRepositoryMethodIsExplained() {
+        Set<String> declared = Stream.of(DriverRepository.class, DriverRepositoryCustom.class, CarRepository.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertEquals(declared, calls().stream().map(RepositoryCall::method).collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    @Test
+    public void noRepositoryMethodScansATable() {
+        List<String> scans = new ArrayList<>();
+        for (RepositoryCall call : calls()) {
+            RecordingStatementInspector.STATEMENTS.clear();
+            call.query().run();
+            List<String> statements = new ArrayList<>(RecordingStatementInspector.STATEMENTS);
+            assertFalse(statements.isEmpty(), call.method() + " sent no statement");
+
+            for (String sql : statements) {
+                String plan = explain(sql);
+                Matcher access = TABLE_ACCESS.matcher(plan);
+                while (access.find()) {
+                    boolean fullScan = access.group(2).endsWith(".tableScan") || access.group(3) == null;
+                    if (fullScan && !INTENDED_SCANS.getOrDefault(call.method(), Set.of()).contains(access.group(1))) {
+                        scans.add(call.method() + " scans " + access.group(1) + ": " + plan);
+                    }
+                }
+            }
+        }
+
+        assertEquals(List.of(), scans);
+    }
+
+    private List<RepositoryCall> calls() {
+        Specification<DriverDO> onlineActive = Specification.where(DriverSpecifications.hasOnlineStatus(OnlineStatus.ONLINE))
+                .and(DriverSpecifications.isDeleted(false));
+        Specification<DriverDO> activeAfter = Specification.where(DriverSpecifications.isDeleted(false))
+                .and(DriverSpecifications.idGreaterThan(driver.getId() - 10));
+        GeoPolygon polygon = new GeoPolygon(List.of(BERLIN, new GeoCoordinate(52.6, 13.405), new GeoCoordinate(52.6, 13.5)));
+
+        return List.of(
+                new RepositoryCall("findByOnlineStatus", () -> driverRepository.findByOnlineStatus(OnlineStatus.ONLINE)),
+                new RepositoryCall("findOnlineStatusOfActiveDriver", () -> driverRepository.findOnlineStatusOfActiveDriver(driver.getId())),
+                new RepositoryCall("findIdsByOnlineStatus", () -> driverRepository.findIdsByOnlineStatus(OnlineStatus.ONLINE)),
+                new RepositoryCall("findExistingUsernames", () -> driverRepository.findExistingUsernames(List.of("driver1", "nobody"))),
+                new RepositoryCall("findInBoundingBox", () -> driverRepository.findInBoundingBox(BoundingBox.around(BERLIN, 1000), 10)),
+                new RepositoryCall("findWithinDistance", () -> driverRepository.findWithinDistance(BERLIN, 1000, 10)),
+                new RepositoryCall("findIntersecting", () -> driverRepository.findIntersecting(polygon)),
+                new RepositoryCall("findInEnvelope", () -> driverRepository.findInEnvelope(polygon.toWkt())),
+                new RepositoryCall("updateLocation", () -> driverRepository.updateLocation(driver.getId(), 52.5, 13.4, ZonedDateTime.now())),
+                new RepositoryCall("updateOnlineStatus", () -> driverRepository.updateOnlineStatus(
+                        List.of(driver.getId(), driver.getId() - 1), OnlineStatus.OFFLINE)),
+                new RepositoryCall("assignCar", () -> driverRepository.assignCar(driver.getId(), car)),
+                new RepositoryCall("releaseCar", () -> driverRepository.releaseCar(driver.getId(), car)),
+                new RepositoryCall("findPage", () -> driverRepository.findPage(onlineActive, 10)),
+                new RepositoryCall("findPage", () -> driverRepository.findPage(activeAfter, 10)),
+                new RepositoryCall("findPage", () -> driverRepository.findPage(DriverSpecifications.hasUsername("driver1"), 10)),
+                new RepositoryCall("findSummaryPage", () -> driverRepository.findSummaryPage(onlineActive, 10)),
+                new RepositoryCall("findSummaryPage", () -> driverRepository.findSummaryPage(
+                        DriverSpecifications.idIn(List.of(driver.getId(), driver.getId() - 1)), 10)),
+                new RepositoryCall("stream", () -> {
+                    try (Stream<DriverDO> drivers = driverRepository.stream(onlineActive)) {
+                        drivers.count();
+                    }
+                }),
+                new RepositoryCall("findByLicensePlate", () -> carRepository.findByLicensePlate("CAR1")),
+                new RepositoryCall("findAll", () -> carRepository.findAll().forEach(CarDO::getDriver)),
+                new RepositoryCall("findByLicensePlateIn", () -> carRepository.findByLicensePlateIn(List.of("CAR1", "FREE"))),
+                new RepositoryCall("findCarAssignments", () -> carRepository.findCarAssignments()),
+                new RepositoryCall("findExistingLicensePlates", () -> carRepository.findExistingLicensePlates(List.of("CAR1", "NONE"))),
+                new RepositoryCall("findAllSummaries", () -> carRepository.findAllSummaries()),
+                new RepositoryCall("streamAll", () -> {
+                    try (Stream<CarDO> cars = carRepository.streamAll()) {
+                        cars.count();
+                    }
+                }));
+    }
+
+    /**
+     * The plan of a statement captured with its {@code ?} placeholders. The plan doesn't depend on the bound values,
+     * so all parameters are bound to null.
+     */
+    private String explain(String sql) {
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private record RepositoryCall(String method, Runnable query) {
+    }
+
+    /**
+     * Records the selects and updates Hibernate prepares, before their parameters are bound.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            String statement = sql.stripLeading().toLowerCase();
+            if (statement.startsWith("select") || statement.startsWith("update") || statement.startsWith("delete")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
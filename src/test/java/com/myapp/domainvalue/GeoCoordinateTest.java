@@ -77,4 +77,14 @@ public class GeoCoordinateTest {
 
         assertNotNull(coord.toString());
     }
+
+    @Test
+    public void distanceTo() {
+        GeoCoordinate berlin = new GeoCoordinate(52.5200, 13.4050);
+        GeoCoordinate hamburg = new GeoCoordinate(53.5511, 9.9937);
+
+        assertEquals(0.0, berlin.distanceTo(berlin), 0.001);
+        assertEquals(255_000, berlin.distanceTo(hamburg), 1_000);
+        assertEquals(berlin.distanceTo(hamburg), hamburg.distanceTo(berlin), 0.001);
+    }
 }
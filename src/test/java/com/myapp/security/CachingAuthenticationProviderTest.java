@@ -0,0 +1,73 @@
+package com.myapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        provider = new CachingAuthenticationProvider(delegate, "maximumSize=10,expireAfterWrite=60s");
+    }
+
+    @Test
+    public void authenticate_verifiesCredentialsOnce() {
+        when(delegate.authenticate(Mockito.any())).thenReturn(UsernamePasswordAuthenticationToken.authenticated(
+                "user", "password", AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+        Authentication cached = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+
+        verify(delegate, times(1)).authenticate(Mockito.any());
+        assertTrue(cached.isAuthenticated());
+        assertEquals("user", cached.getName());
+        assertEquals(null, cached.getCredentials());
+    }
+
+    @Test
+    public void authenticate_doesNotCacheFailures() {
+        when(delegate.authenticate(Mockito.any())).thenThrow(new BadCredentialsException("bad"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "wrong")));
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "wrong")));
+
+        verify(delegate, times(2)).authenticate(Mockito.any());
+        assertEquals(0, provider.size());
+    }
+
+    @Test
+    public void authenticate_otherPasswordIsVerifiedAgain() {
+        when(delegate.authenticate(Mockito.any()))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated("user", "password", AuthorityUtils.NO_AUTHORITIES))
+                .thenThrow(new BadCredentialsException("bad"));
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "wrong")));
+    }
+}
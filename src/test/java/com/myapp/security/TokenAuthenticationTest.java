@@ -0,0 +1,65 @@
+package com.myapp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myapp.MyappServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = MyappServer.class)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.flyway.locations=classpath:db/migration")
+public class TokenAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void tokenFromBasicCredentialsAuthenticatesRequests() throws Exception {
+        String basic = "Basic " + Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+        MvcResult tokenResult = mockMvc.perform(MockMvcRequestBuilders.post("/v1/tokens").header(HttpHeaders.AUTHORIZATION, basic))
+                .andReturn();
+        assertEquals(HttpStatus.CREATED.value(), tokenResult.getResponse().getStatus());
+        JsonNode token = objectMapper.readTree(tokenResult.getResponse().getContentAsString());
+        assertEquals("Bearer", token.get("tokenType").asText());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.get("token").asText())).andReturn();
+
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    public void invalidTokenIsRejected() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer forged.token")).andReturn();
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), result.getResponse().getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", result.getResponse().getHeader(HttpHeaders.WWW_AUTHENTICATE));
+    }
+
+    @Test
+    public void requestWithoutCredentialsIsRejected() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/cars")).andReturn();
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), result.getResponse().getStatus());
+    }
+}
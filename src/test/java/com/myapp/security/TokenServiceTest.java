@@ -0,0 +1,77 @@
+package com.myapp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TokenServiceTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes();
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final Authentication user = UsernamePasswordAuthenticationToken.authenticated(
+            "user", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+    private final TokenService tokenService = new TokenService(SECRET, Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    public void verify_acceptsIssuedToken() {
+        TokenService.Token token = tokenService.issue(user);
+
+        Authentication result = tokenService.verify(token.getValue());
+
+        assertNotNull(result);
+        assertEquals("user", result.getName());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), result.getAuthorities());
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), token.getExpiresAt());
+    }
+
+    @Test
+    public void verify_rejectsTamperedToken() {
+        String token = tokenService.issue(user).getValue();
+        String otherUser = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "other", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"))).getValue();
+
+        // payload of one token with the signature of the other
+        String forged = otherUser.substring(0, otherUser.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertNull(tokenService.verify(forged));
+        assertNull(tokenService.verify("garbage"));
+        assertNull(tokenService.verify("a.b!c"));
+    }
+
+    @Test
+    public void verify_rejectsTokenOfOtherSecret() {
+        byte[] otherSecret = Arrays.copyOf(SECRET, SECRET.length);
+        otherSecret[0] = 'x';
+        TokenService otherService = new TokenService(otherSecret, Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertNull(tokenService.verify(otherService.issue(user).getValue()));
+    }
+
+    @Test
+    public void verify_rejectsExpiredToken() {
+        String token = tokenService.issue(user).getValue();
+        TokenService later = new TokenService(SECRET, Duration.ofMinutes(15), Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        assertNull(later.verify(token));
+    }
+
+    @Test
+    public void shortSecretIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenService(new byte[16], Duration.ofMinutes(15), Clock.systemUTC()));
+    }
+}
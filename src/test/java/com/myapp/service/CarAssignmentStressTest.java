@@ -0,0 +1,136 @@
+package com.myapp.service;
+
+import com.myapp.MyappServer;
+import com.myapp.dataaccessobject.CarRepository;
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.exception.CarAlreadyInUseException;
+import com.myapp.service.car.CarService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many drivers compete for a few cars. Every thread acts for its own driver, assigns a random car and releases it
+ * again; a car must never be held by two drivers at the same time.
+ */
+@SpringBootTest(classes = MyappServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"spring.flyway.locations=classpath:db/migration", "spring.jpa.show-sql=false"})
+public class CarAssignmentStressTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CarAssignmentStressTest.class);
+
+    private static final int THREADS = 16;
+
+    private static final int CARS = 4;
+
+    private static final int ATTEMPTS_PER_THREAD = 200;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    private final List<DriverDO> drivers = new ArrayList<>();
+
+    private final List<CarDO> cars = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < THREADS; i++) {
+            DriverDO driver = new DriverDO("stress-driver-" + i, "pw");
+            driver.setOnlineStatus(OnlineStatus.ONLINE);
+            drivers.add(driverRepository.save(driver));
+        }
+        for (int i = 0; i < CARS; i++) {
+            cars.add(carRepository.save(new CarDO("STRESS-" + i, 4, false, 5, EngineType.ELECTRIC, "TESLA")));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        driverRepository.deleteAll(drivers);
+        carRepository.deleteAll(cars);
+    }
+
+    @Test
+    public void carIsNeverAssignedToTwoDrivers() throws Exception {
+        Map<String, Long> holders = new ConcurrentHashMap<>();
+        AtomicReference<String> violation = new AtomicReference<>();
+        AtomicInteger assignments = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (DriverDO driver : drivers) {
+            long driverId = driver.getId();
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    String licensePlate = cars.get(ThreadLocalRandom.current().nextInt(CARS)).getLicensePlate();
+                    try {
+                        carService.addDriver(driverId, licensePlate);
+                    } catch (CarAlreadyInUseException e) {
+                        conflicts.incrementAndGet();
+                        continue;
+                    }
+                    Long holder = holders.putIfAbsent(licensePlate, driverId);
+                    if (holder != null) {
+                        violation.set(licensePlate + " assigned to drivers " + holder + " and " + driverId);
+                    }
+                    assignments.incrementAndGet();
+                    holders.remove(licensePlate, driverId);
+                    carService.deleteDriver(driverId, licensePlate);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+
+        LOG.info("{} threads, {} cars: {} assignments/s, {} assignments, {} conflicts",
+                THREADS, CARS, Math.round(assignments.get() / seconds), assignments.get(), conflicts.get());
+        assertNull(violation.get());
+        assertTrue(assignments.get() > 0);
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, assignments.get() + conflicts.get());
+        for (DriverDO driver : driverRepository.findAllById(drivers.stream().map(DriverDO::getId).toList())) {
+            assertNull(driver.getCar());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.myapp.service;
+
+import com.myapp.MyappServer;
+import com.myapp.cache.CacheConfiguration;
+import com.myapp.dataaccessobject.CarRepository;
+import com.myapp.domainobject.CarDO;
+import com.myapp.domainvalue.EngineType;
+import com.myapp.exception.EntityNotFoundException;
+import com.myapp.service.car.CarService;
+import com.myapp.service.driver.DriverService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = MyappServer.class)
+@TestPropertySource(properties = "spring.flyway.locations=classpath:db/migration")
+public class CarServiceCacheTest {
+
+    @MockBean
+    private CarRepository carRepository;
+
+    @MockBean
+    private DriverService driverService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final CarDO testCar = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(CacheConfiguration.CARS).clear();
+    }
+
+    @Test
+    public void find_readsRepositoryOnce() throws Exception {
+        when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
+
+        CarDO first = carService.find("ABC123");
+        CarDO second = carService.find("ABC123");
+
+        assertSame(first, second);
+        verify(carRepository, times(1)).findByLicensePlate("ABC123");
+    }
+
+    @Test
+    public void find_doesNotCacheMissingCars() {
+        assertThrows(EntityNotFoundException.class, () -> carService.find("UNKNOWN"));
+        assertThrows(EntityNotFoundException.class, () -> carService.find("UNKNOWN"));
+
+        verify(carRepository, times(2)).findByLicensePlate("UNKNOWN");
+    }
+
+    @Test
+    public void delete_evictsCar() throws Exception {
+        when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
+        carService.find("ABC123");
+
+        carService.delete("ABC123");
+        carService.find("ABC123");
+
+        // find, delete and find again
+        verify(carRepository, times(3)).findByLicensePlate("ABC123");
+    }
+
+    @Test
+    public void create_evictsCar() throws Exception {
+        when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
+        when(carRepository.save(testCar)).thenReturn(testCar);
+        carService.find("ABC123");
+
+        carService.create(testCar);
+        carService.find("ABC123");
+
+        verify(carRepository, times(2)).findByLicensePlate("ABC123");
+    }
+
+    @Test
+    public void addDriver_evictsCar() throws Exception {
+        when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
+        carService.find("ABC123");
+
+        carService.addDriver(1L, "ABC123");
+        carService.find("ABC123");
+
+        // find, addDriver and find again
+        verify(carRepository, times(3)).findByLicensePlate("ABC123");
+    }
+
+    @Test
+    public void deleteDriver_evictsCar() throws Exception {
+        when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
+        carService.find("ABC123");
+
+        carService.deleteDriver(1L, "ABC123");
+        carService.find("ABC123");
+
+        // find, deleteDriver and find again
+        verify(carRepository, times(3)).findByLicensePlate("ABC123");
+    }
+}
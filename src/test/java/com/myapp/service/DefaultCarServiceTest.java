@@ -1,31 +1,43 @@
 package com.myapp.service;
 
+import com.myapp.cache.CacheConfiguration;
+import com.myapp.dataaccessobject.CarAssignment;
 import com.myapp.dataaccessobject.CarRepository;
 import com.myapp.domainobject.CarDO;
-import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
 import com.myapp.domainvalue.EngineType;
-import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.domainvalue.GeoCoordinate;
 import com.myapp.exception.CarAlreadyInUseException;
 import com.myapp.exception.ConstraintsViolationException;
 import com.myapp.exception.EntityNotFoundException;
 import com.myapp.service.car.DefaultCarService;
+import com.myapp.service.driver.DriverChangedEvent;
 import com.myapp.service.driver.DriverService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,18 +50,20 @@ public class DefaultCarServiceTest {
     @Mock
     private DriverService driverService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private DefaultCarService carService;
 
     private CarDO testCar;
-    private DriverDO testDriver;
 
     @BeforeEach
     public void setUp() {
         testCar = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
-        testDriver = new DriverDO("driver1", "password");
-        testDriver.setId(1L);
-        testDriver.setOnlineStatus(OnlineStatus.ONLINE);
         carService.setDriverService(driverService);
     }
 
@@ -72,6 +86,30 @@ public class DefaultCarServiceTest {
         });
     }
 
+    @Test
+    public void findByLicensePlates_readsUncachedCarsWithOneQuery() throws ConstraintsViolationException {
+        Cache cache = new ConcurrentMapCache(CacheConfiguration.CARS);
+        CarDO cachedCar = new CarDO("CACHED1", 2, true, 9, EngineType.ELECTRIC, "TESLA");
+        cache.put("CACHED1", cachedCar);
+        when(cacheManager.getCache(CacheConfiguration.CARS)).thenReturn(cache);
+        when(carRepository.findByLicensePlateIn(Set.of("ABC123", "UNKNOWN"))).thenReturn(List.of(testCar));
+
+        Map<String, CarDO> result = carService.findByLicensePlates(List.of("UNKNOWN", "ABC123", "CACHED1"));
+
+        assertEquals(List.of("ABC123", "CACHED1"), List.copyOf(result.keySet()));
+        assertEquals(cachedCar, result.get("CACHED1"));
+        assertEquals(testCar, cache.get("ABC123", CarDO.class));
+    }
+
+    @Test
+    public void findByLicensePlates_tooMany() {
+        List<String> licensePlates = IntStream.rangeClosed(0, 1000)
+                .mapToObj(i -> "CAR" + i)
+                .collect(Collectors.toList());
+
+        assertThrows(ConstraintsViolationException.class, () -> carService.findByLicensePlates(licensePlates));
+    }
+
     @Test
     public void createCar_success() throws ConstraintsViolationException {
         when(carRepository.save(testCar)).thenReturn(testCar);
@@ -92,6 +130,57 @@ public class DefaultCarServiceTest {
         });
     }
 
+    @Test
+    public void catalogVersion_changesWithCars() throws ConstraintsViolationException {
+        CarDO duplicate = new CarDO("ABC123", 2, true, 5, EngineType.ELECTRIC, "TESLA");
+        when(carRepository.save(testCar)).thenReturn(testCar);
+        when(carRepository.save(duplicate)).thenThrow(new DataIntegrityViolationException("duplicate"));
+        long before = carService.getCatalogVersion();
+
+        assertThrows(ConstraintsViolationException.class, () -> carService.create(duplicate));
+        long afterFailure = carService.getCatalogVersion();
+        carService.create(testCar);
+
+        assertEquals(before, afterFailure);
+        assertEquals(before + 1, carService.getCatalogVersion());
+    }
+
+    @Test
+    public void catalogVersion_changesWithDriversWhoHaveACar() {
+        when(carRepository.findCarAssignments()).thenReturn(List.of(new CarAssignment(1L, "ABC123")));
+        carService.loadCarAssignments();
+        long before = carService.getCatalogVersion();
+
+        carService.onDriverChanged(DriverChangedEvent.location(1L, new GeoCoordinate(52.52, 13.405), ZonedDateTime.now()));
+        carService.onDriverChanged(DriverChangedEvent.location(2L, new GeoCoordinate(52.52, 13.405), ZonedDateTime.now()));
+        assertEquals(before + 1, carService.getCatalogVersion());
+
+        carService.onDriverChanged(DriverChangedEvent.car(1L, null));
+        carService.onDriverChanged(DriverChangedEvent.location(1L, new GeoCoordinate(52.52, 13.405), ZonedDateTime.now()));
+        assertEquals(before + 2, carService.getCatalogVersion());
+    }
+
+    @Test
+    public void driverChange_evictsCarOfTheDriver() {
+        Cache cache = new ConcurrentMapCache(CacheConfiguration.CARS);
+        when(cacheManager.getCache(CacheConfiguration.CARS)).thenReturn(cache);
+        when(carRepository.findCarAssignments()).thenReturn(List.of(new CarAssignment(1L, "ABC123")));
+        carService.loadCarAssignments();
+        cache.put("ABC123", testCar);
+        cache.put("XYZ789", testCar);
+
+        carService.onDriverChanged(DriverChangedEvent.location(2L, new GeoCoordinate(52.52, 13.405), ZonedDateTime.now()));
+        assertNotNull(cache.get("ABC123"));
+
+        carService.onDriverChanged(DriverChangedEvent.location(1L, new GeoCoordinate(52.52, 13.405), ZonedDateTime.now()));
+        assertNull(cache.get("ABC123"));
+
+        cache.put("ABC123", testCar);
+        carService.onDriverChanged(DriverChangedEvent.car(1L, "XYZ789"));
+        assertNull(cache.get("ABC123"));
+        assertNull(cache.get("XYZ789"));
+    }
+
     @Test
     public void deleteCar_success() throws EntityNotFoundException, ConstraintsViolationException {
         when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
@@ -113,19 +202,16 @@ public class DefaultCarServiceTest {
     @Test
     public void addDriver_success() throws Exception {
         when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
-        when(driverService.find(1L)).thenReturn(testDriver);
-        when(carRepository.save(testCar)).thenReturn(testCar);
 
         carService.addDriver(1L, "ABC123");
 
-        assertEquals(testDriver, testCar.getDriver());
+        verify(driverService).assignCar(1L, testCar);
     }
 
     @Test
-    public void addDriver_carAlreadyInUse() throws EntityNotFoundException {
-        testCar.setDriver(new DriverDO("other", "pass"));
+    public void addDriver_carAlreadyInUse() throws Exception {
         when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
-        doReturn(testDriver).when(driverService).find(1L);
+        Mockito.doThrow(new CarAlreadyInUseException("in use")).when(driverService).assignCar(1L, testCar);
 
         assertThrows(CarAlreadyInUseException.class, () -> {
             carService.addDriver(1L, "ABC123");
@@ -133,45 +219,28 @@ public class DefaultCarServiceTest {
     }
 
     @Test
-    public void addDriver_driverOffline() throws EntityNotFoundException {
-        testDriver.setOnlineStatus(OnlineStatus.OFFLINE);
-        when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
-        doReturn(testDriver).when(driverService).find(1L);
+    public void addDriver_carNotFound() throws Exception {
+        when(carRepository.findByLicensePlate("UNKNOWN")).thenReturn(null);
 
-        assertThrows(ConstraintsViolationException.class, () -> {
-            carService.addDriver(1L, "ABC123");
+        assertThrows(EntityNotFoundException.class, () -> {
+            carService.addDriver(1L, "UNKNOWN");
         });
+        verify(driverService, Mockito.never()).assignCar(Mockito.anyLong(), Mockito.any());
     }
 
     @Test
     public void deleteDriver_success() throws Exception {
-        testCar.setDriver(testDriver);
         when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
-        when(driverService.find(1L)).thenReturn(testDriver);
-        when(carRepository.save(testCar)).thenReturn(testCar);
 
         carService.deleteDriver(1L, "ABC123");
 
-        assertNull(testCar.getDriver());
-    }
-
-    @Test
-    public void deleteDriver_noDriverAssigned() throws Exception {
-        when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
-        when(driverService.find(1L)).thenReturn(testDriver);
-
-        assertThrows(ConstraintsViolationException.class, () -> {
-            carService.deleteDriver(1L, "ABC123");
-        });
+        verify(driverService).releaseCar(1L, testCar);
     }
 
     @Test
     public void deleteDriver_wrongDriver() throws Exception {
-        DriverDO otherDriver = new DriverDO("other", "pass");
-        otherDriver.setId(2L);
-        testCar.setDriver(otherDriver);
         when(carRepository.findByLicensePlate("ABC123")).thenReturn(testCar);
-        when(driverService.find(1L)).thenReturn(testDriver);
+        Mockito.doThrow(new ConstraintsViolationException("not driving")).when(driverService).releaseCar(1L, testCar);
 
         assertThrows(ConstraintsViolationException.class, () -> {
             carService.deleteDriver(1L, "ABC123");
@@ -189,4 +258,30 @@ public class DefaultCarServiceTest {
         assertNotNull(result);
         assertEquals(cars, result);
     }
+
+    @Test
+    public void createAll_skipsDuplicates() throws ConstraintsViolationException {
+        CarDO newCar = new CarDO("XYZ789", 2, true, 9, EngineType.ELECTRIC, "TESLA");
+        CarDO sameNewCar = new CarDO("XYZ789", 2, true, 9, EngineType.ELECTRIC, "TESLA");
+        when(carRepository.findExistingLicensePlates(Mockito.anyCollection())).thenReturn(Set.of("ABC123"));
+
+        List<BatchItemStatus> result = carService.createAll(Arrays.asList(testCar, newCar, sameNewCar));
+
+        assertEquals(Arrays.asList(BatchItemStatus.DUPLICATE, BatchItemStatus.OK, BatchItemStatus.DUPLICATE), result);
+        verify(carRepository).saveAll(Arrays.asList(newCar));
+    }
+
+    @Test
+    public void createAll_retriesOneByOneOnConstraintViolation() throws ConstraintsViolationException {
+        CarDO newCar = new CarDO("XYZ789", 2, true, 9, EngineType.ELECTRIC, "TESLA");
+        when(carRepository.findExistingLicensePlates(Mockito.anyCollection())).thenReturn(Set.of());
+        when(carRepository.saveAll(Mockito.anyIterable())).thenThrow(new DataIntegrityViolationException("uc_license_plate"));
+        when(carRepository.save(testCar)).thenThrow(new DataIntegrityViolationException("uc_license_plate"));
+        when(carRepository.findByLicensePlate("ABC123")).thenReturn(new CarDO());
+
+        List<BatchItemStatus> result = carService.createAll(Arrays.asList(testCar, newCar));
+
+        assertEquals(Arrays.asList(BatchItemStatus.DUPLICATE, BatchItemStatus.OK), result);
+        verify(carRepository).save(newCar);
+    }
 }
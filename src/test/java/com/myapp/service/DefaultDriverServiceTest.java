@@ -1,27 +1,49 @@
 package com.myapp.service;
 
 import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.dataaccessobject.DriverSummary;
 import com.myapp.domainobject.CarDO;
 import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.BatchItemStatus;
 import com.myapp.domainvalue.EngineType;
+import com.myapp.domainvalue.LocationUpdate;
 import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.exception.CarAlreadyInUseException;
 import com.myapp.exception.ConstraintsViolationException;
 import com.myapp.exception.EntityNotFoundException;
+import com.myapp.domainvalue.GeoCoordinate;
 import com.myapp.service.driver.DefaultDriverService;
+import com.myapp.service.driver.DriverChangedEvent;
+import com.myapp.service.driver.DriverLocationIndex;
+import com.myapp.service.driver.DriverPresenceTracker;
+import com.myapp.service.driver.LocationUpdateFilter;
+import com.myapp.service.driver.LocationWriteBehindBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mockito;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.ZonedDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
@@ -33,6 +55,18 @@ public class DefaultDriverServiceTest {
     @Mock
     private DriverRepository driverRepository;
 
+    @Spy
+    private DriverLocationIndex driverLocationIndex = new DriverLocationIndex();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DriverPresenceTracker driverPresenceTracker;
+
     @InjectMocks
     private DefaultDriverService driverService;
 
@@ -75,6 +109,37 @@ public class DefaultDriverServiceTest {
         verify(driverRepository).save(testDriver);
     }
 
+    @Test
+    public void createDriver_tracksOnlineDriverAfterCommit() throws ConstraintsViolationException {
+        testDriver.setOnlineStatus(OnlineStatus.ONLINE);
+        when(driverRepository.save(testDriver)).thenReturn(testDriver);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            driverService.create(testDriver);
+            verify(driverPresenceTracker, Mockito.never()).track(Mockito.anyLong());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(driverPresenceTracker).track(1L);
+    }
+
+    @Test
+    public void createAll_tracksOnlineDrivers() throws ConstraintsViolationException {
+        DriverDO onlineDriver = new DriverDO("driver2", "password");
+        onlineDriver.setId(2L);
+        onlineDriver.setOnlineStatus(OnlineStatus.ONLINE);
+        when(driverRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        driverService.createAll(Arrays.asList(testDriver, onlineDriver));
+
+        verify(driverPresenceTracker).track(2L);
+        Mockito.verifyNoMoreInteractions(driverPresenceTracker);
+    }
+
     @Test
     public void createDriver_duplicateUsername() {
         when(driverRepository.save(testDriver)).thenThrow(new DataIntegrityViolationException("duplicate"));
@@ -91,6 +156,8 @@ public class DefaultDriverServiceTest {
         driverService.delete(1L);
 
         assertTrue(testDriver.getDeleted());
+        verify(eventPublisher).publishEvent(Mockito.argThat((DriverChangedEvent event) ->
+                event.getDriverId() == 1L && event.getType() == DriverChangedEvent.Type.DELETED));
     }
 
     @Test
@@ -104,34 +171,296 @@ public class DefaultDriverServiceTest {
 
     @Test
     public void updateLocation_success() throws EntityNotFoundException, ConstraintsViolationException {
-        when(driverRepository.findById(1L)).thenReturn(Optional.of(testDriver));
-        when(driverRepository.save(testDriver)).thenReturn(testDriver);
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.eq(52.5200), Mockito.eq(13.4050), Mockito.any())).thenReturn(1);
 
-        driverService.updateLocation(1L, 13.4050, 52.5200);
+        driverService.updateLocation(1L, 13.4050, 52.5200, null);
 
-        assertNotNull(testDriver.getCoordinate());
-        assertEquals(52.5200, testDriver.getCoordinate().getLatitude(), 0.0001);
-        assertEquals(13.4050, testDriver.getCoordinate().getLongitude(), 0.0001);
+        verify(driverRepository, Mockito.never()).findById(1L);
+        verify(driverRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void updateLocation_updatesLocationIndex() throws EntityNotFoundException, ConstraintsViolationException {
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.eq(52.5200), Mockito.eq(13.4050), Mockito.any())).thenReturn(1);
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.OFFLINE));
+
+        driverService.updateLocation(1L, 13.4050, 52.5200, null);
+
+        assertEquals(1, driverLocationIndex.size());
+    }
+
+    @Test
+    public void updateLocation_indexedDriverTakesStatusFromIndex() throws EntityNotFoundException, ConstraintsViolationException {
+        driverLocationIndex.update(1L, new GeoCoordinate(52.5100, 13.4050), null, OnlineStatus.ONLINE);
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.eq(52.5200), Mockito.eq(13.4050), Mockito.any())).thenReturn(1);
+
+        driverService.updateLocation(1L, 13.4050, 52.5200, null);
+
+        assertEquals(52.5200, driverLocationIndex.position(1L).getLatitude());
+        assertEquals(OnlineStatus.ONLINE, driverLocationIndex.onlineStatus(1L));
+        verify(driverRepository, Mockito.never()).findOnlineStatusOfActiveDriver(1L);
+    }
+
+    @Test
+    public void updateLocation_publishesChange() throws EntityNotFoundException, ConstraintsViolationException {
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.eq(52.5200), Mockito.eq(13.4050), Mockito.any())).thenReturn(1);
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.OFFLINE));
+
+        driverService.updateLocation(1L, 13.4050, 52.5200, null);
+
+        verify(eventPublisher).publishEvent(Mockito.argThat((DriverChangedEvent event) ->
+                event.getType() == DriverChangedEvent.Type.LOCATION && event.getCoordinate().getLatitude() == 52.5200));
+    }
+
+    @Test
+    public void updateLocation_deletedDriverIsNotIndexed() throws EntityNotFoundException, ConstraintsViolationException {
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.eq(52.5200), Mockito.eq(13.4050), Mockito.any())).thenReturn(1);
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.empty());
+
+        driverService.updateLocation(1L, 13.4050, 52.5200, null);
+
+        assertEquals(0, driverLocationIndex.size());
+        verify(eventPublisher, Mockito.never()).publishEvent(Mockito.any(Object.class));
     }
 
     @Test
     public void updateLocation_driverNotFound() {
-        when(driverRepository.findById(99L)).thenReturn(Optional.empty());
+        when(driverRepository.updateLocation(Mockito.eq(99L), Mockito.anyDouble(), Mockito.anyDouble(), Mockito.any())).thenReturn(0);
 
         assertThrows(EntityNotFoundException.class, () -> {
-            driverService.updateLocation(99L, 13.4050, 52.5200);
+            driverService.updateLocation(99L, 13.4050, 52.5200, null);
         });
     }
 
     @Test
-    public void updateCar_success() throws EntityNotFoundException, ConstraintsViolationException {
-        CarDO car = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+    public void updateLocation_staleWhenNewerPositionIsStored() throws EntityNotFoundException, ConstraintsViolationException {
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.anyDouble(), Mockito.anyDouble(), Mockito.any())).thenReturn(0);
+        when(driverRepository.existsById(1L)).thenReturn(true);
+
+        BatchItemStatus status = driverService.updateLocation(1L, 13.4050, 52.5200, ZonedDateTime.now().minusMinutes(5));
+
+        assertEquals(BatchItemStatus.STALE, status);
+        assertEquals(0, driverLocationIndex.size());
+    }
+
+    @Test
+    public void updateLocation_filterSuppressesSmallMoves() throws EntityNotFoundException, ConstraintsViolationException {
+        driverService.setLocationUpdateFilter(new LocationUpdateFilter(10, 30, new SimpleMeterRegistry()));
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.anyDouble(), Mockito.anyDouble(), Mockito.any())).thenReturn(1);
+        ZonedDateTime now = ZonedDateTime.now();
+
+        assertEquals(BatchItemStatus.OK, driverService.updateLocation(1L, 13.4050, 52.5200, now));
+        assertEquals(BatchItemStatus.SUPPRESSED, driverService.updateLocation(1L, 13.4051, 52.5200, now.plusSeconds(5)));
+        assertEquals(BatchItemStatus.STALE, driverService.updateLocation(1L, 13.5000, 52.5200, now.minusSeconds(5)));
+
+        verify(driverRepository, Mockito.times(1)).updateLocation(Mockito.eq(1L), Mockito.anyDouble(), Mockito.anyDouble(), Mockito.any());
+    }
+
+    @Test
+    public void updateLocation_filterForgetsRolledBackUpdate() throws EntityNotFoundException, ConstraintsViolationException {
+        driverService.setLocationUpdateFilter(new LocationUpdateFilter(10, 30, new SimpleMeterRegistry()));
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.anyDouble(), Mockito.anyDouble(), Mockito.any())).thenReturn(1);
+        ZonedDateTime now = ZonedDateTime.now();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(BatchItemStatus.OK, driverService.updateLocation(1L, 13.4050, 52.5200, now));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(BatchItemStatus.OK, driverService.updateLocation(1L, 13.4051, 52.5200, now.plusSeconds(5)));
+    }
+
+    @Test
+    public void deleteDriver_forgetsFilteredLocation() throws EntityNotFoundException, ConstraintsViolationException {
+        driverService.setLocationUpdateFilter(new LocationUpdateFilter(10, 30, new SimpleMeterRegistry()));
+        when(driverRepository.updateLocation(Mockito.eq(1L), Mockito.anyDouble(), Mockito.anyDouble(), Mockito.any())).thenReturn(1);
         when(driverRepository.findById(1L)).thenReturn(Optional.of(testDriver));
-        when(driverRepository.save(testDriver)).thenReturn(testDriver);
+        ZonedDateTime now = ZonedDateTime.now();
+        driverService.updateLocation(1L, 13.4050, 52.5200, now);
+
+        driverService.delete(1L);
+
+        assertEquals(BatchItemStatus.OK, driverService.updateLocation(1L, 13.4051, 52.5200, now.plusSeconds(5)));
+    }
+
+    @Test
+    public void updateLocation_writeBehindBuffersPosition() throws EntityNotFoundException, ConstraintsViolationException {
+        LocationWriteBehindBuffer buffer = Mockito.mock(LocationWriteBehindBuffer.class);
+        driverService.setLocationWriteBehindBuffer(buffer);
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.ONLINE));
+
+        driverService.updateLocation(1L, 13.4050, 52.5200, null);
+
+        verify(buffer).offer(Mockito.argThat(update -> update.getDriverId() == 1L));
+        verify(driverRepository, Mockito.never()).findById(1L);
+        assertEquals(1, driverLocationIndex.size());
+    }
+
+    @Test
+    public void updateLocation_writeBehindIndexedDriverRunsNoStatement() throws EntityNotFoundException, ConstraintsViolationException {
+        LocationWriteBehindBuffer buffer = Mockito.mock(LocationWriteBehindBuffer.class);
+        driverService.setLocationWriteBehindBuffer(buffer);
+        driverLocationIndex.update(1L, new GeoCoordinate(52.5100, 13.4050), ZonedDateTime.now().minusMinutes(1), OnlineStatus.ONLINE);
 
-        driverService.updateCar(1L, car);
+        assertEquals(BatchItemStatus.OK, driverService.updateLocation(1L, 13.4050, 52.5200, null));
 
-        assertEquals(car, testDriver.getCar());
+        verify(buffer).offer(Mockito.argThat(update -> update.getDriverId() == 1L));
+        Mockito.verifyNoInteractions(driverRepository);
+    }
+
+    @Test
+    public void updateLocation_writeBehindStaleWhenNewerPositionIsKnown() throws EntityNotFoundException, ConstraintsViolationException {
+        LocationWriteBehindBuffer buffer = Mockito.mock(LocationWriteBehindBuffer.class);
+        driverService.setLocationWriteBehindBuffer(buffer);
+        ZonedDateTime now = ZonedDateTime.now();
+        driverLocationIndex.update(1L, new GeoCoordinate(52.5100, 13.4050), now, OnlineStatus.ONLINE);
+
+        BatchItemStatus status = driverService.updateLocation(1L, 13.4050, 52.5200, now.minusMinutes(5));
+
+        assertEquals(BatchItemStatus.STALE, status);
+        verify(buffer, Mockito.never()).offer(Mockito.any());
+        assertEquals(52.5100, driverLocationIndex.position(1L).getLatitude());
+    }
+
+    @Test
+    public void updateLocation_writeBehindDriverNotFound() {
+        driverService.setLocationWriteBehindBuffer(Mockito.mock(LocationWriteBehindBuffer.class));
+        when(driverRepository.findOnlineStatusOfActiveDriver(99L)).thenReturn(Optional.empty());
+        when(driverRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            driverService.updateLocation(99L, 13.4050, 52.5200, null);
+        });
+    }
+
+    @Test
+    public void findDriver_writeBehindShowsBufferedPosition() throws EntityNotFoundException {
+        LocationWriteBehindBuffer buffer = Mockito.mock(LocationWriteBehindBuffer.class);
+        driverService.setLocationWriteBehindBuffer(buffer);
+        when(driverRepository.findById(1L)).thenReturn(Optional.of(testDriver));
+        when(buffer.get(1L)).thenReturn(new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), ZonedDateTime.now()));
+
+        DriverDO result = driverService.find(1L);
+
+        assertEquals(52.52, result.getCoordinate().getLatitude(), 0.0001);
+    }
+
+    @Test
+    public void updateLocations_latestUpdatePerDriverWins() throws ConstraintsViolationException {
+        ZonedDateTime now = ZonedDateTime.now();
+        when(driverRepository.findAllById(Mockito.anyIterable())).thenReturn(Arrays.asList(testDriver));
+
+        List<BatchItemStatus> result = driverService.updateLocations(Arrays.asList(
+                new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), now),
+                new LocationUpdate(1L, new GeoCoordinate(40.71, -74.00), now.minusSeconds(5)),
+                new LocationUpdate(99L, new GeoCoordinate(52.52, 13.405), now)));
+
+        assertEquals(Arrays.asList(BatchItemStatus.OK, BatchItemStatus.SUPERSEDED, BatchItemStatus.NOT_FOUND), result);
+        assertEquals(52.52, testDriver.getCoordinate().getLatitude(), 0.0001);
+        assertEquals(1, driverLocationIndex.size());
+    }
+
+    @Test
+    public void updateLocations_skipsStaleUpdates() throws ConstraintsViolationException {
+        ZonedDateTime now = ZonedDateTime.now();
+        testDriver.setCoordinate(new GeoCoordinate(52.52, 13.405), now);
+        when(driverRepository.findAllById(Mockito.anyIterable())).thenReturn(Arrays.asList(testDriver));
+
+        List<BatchItemStatus> result = driverService.updateLocations(Arrays.asList(
+                new LocationUpdate(1L, new GeoCoordinate(40.71, -74.00), now.minusSeconds(5))));
+
+        assertEquals(Arrays.asList(BatchItemStatus.STALE), result);
+        assertEquals(52.52, testDriver.getCoordinate().getLatitude(), 0.0001);
+    }
+
+    @Test
+    public void createAll_skipsDuplicates() throws ConstraintsViolationException {
+        DriverDO newDriver = new DriverDO("driver2", "password");
+        when(driverRepository.findExistingUsernames(Mockito.anyCollection())).thenReturn(Set.of("driver1"));
+
+        List<BatchItemStatus> result = driverService.createAll(Arrays.asList(testDriver, newDriver, new DriverDO("driver2", "other")));
+
+        assertEquals(Arrays.asList(BatchItemStatus.DUPLICATE, BatchItemStatus.OK, BatchItemStatus.DUPLICATE), result);
+        verify(driverRepository).saveAll(Arrays.asList(newDriver));
+    }
+
+    @Test
+    public void createAll_tooLarge() {
+        List<DriverDO> drivers = Collections.nCopies(1001, testDriver);
+
+        assertThrows(ConstraintsViolationException.class, () -> {
+            driverService.createAll(drivers);
+        });
+    }
+
+    @Test
+    public void assignCar_success() throws Exception {
+        CarDO car = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+        when(driverRepository.assignCar(1L, car)).thenReturn(1);
+
+        driverService.assignCar(1L, car);
+
+        verify(driverRepository, Mockito.never()).findById(1L);
+        verify(eventPublisher).publishEvent(Mockito.argThat((DriverChangedEvent event) ->
+                event.getType() == DriverChangedEvent.Type.CAR && "ABC123".equals(event.getLicensePlate())));
+    }
+
+    @Test
+    public void assignCar_carAlreadyInUse() {
+        CarDO car = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+        when(driverRepository.assignCar(1L, car)).thenReturn(0);
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.ONLINE));
+
+        assertThrows(CarAlreadyInUseException.class, () -> {
+            driverService.assignCar(1L, car);
+        });
+    }
+
+    @Test
+    public void assignCar_concurrentAssignmentViolatesConstraint() {
+        CarDO car = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+        when(driverRepository.assignCar(1L, car)).thenThrow(new DataIntegrityViolationException("uc_car"));
+
+        assertThrows(CarAlreadyInUseException.class, () -> {
+            driverService.assignCar(1L, car);
+        });
+    }
+
+    @Test
+    public void assignCar_driverOffline() {
+        CarDO car = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+        when(driverRepository.assignCar(1L, car)).thenReturn(0);
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.OFFLINE));
+
+        assertThrows(ConstraintsViolationException.class, () -> {
+            driverService.assignCar(1L, car);
+        });
+    }
+
+    @Test
+    public void assignCar_driverNotFound() {
+        CarDO car = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+        when(driverRepository.assignCar(99L, car)).thenReturn(0);
+        when(driverRepository.findOnlineStatusOfActiveDriver(99L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            driverService.assignCar(99L, car);
+        });
+    }
+
+    @Test
+    public void releaseCar_notDrivingThisCar() {
+        CarDO car = new CarDO("ABC123", 4, false, 8, EngineType.GAS, "BMW");
+        when(driverRepository.releaseCar(1L, car)).thenReturn(0);
+        when(driverRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ConstraintsViolationException.class, () -> {
+            driverService.releaseCar(1L, car);
+        });
     }
 
     @Test
@@ -147,6 +476,98 @@ public class DefaultDriverServiceTest {
         assertEquals("online1", result.get(0).getUsername());
     }
 
+    @Test
+    public void findNearby_closestFirst() throws ConstraintsViolationException {
+        DriverDO farDriver = new DriverDO("far", "pass");
+        farDriver.setId(2L);
+        testDriver.setCoordinate(new GeoCoordinate(52.5200, 13.4050));
+        farDriver.setCoordinate(new GeoCoordinate(52.5300, 13.4050));
+        driverLocationIndex.rebuild(Arrays.asList(testDriver, farDriver));
+        when(driverRepository.findAllById(Mockito.anyIterable())).thenReturn(Arrays.asList(farDriver, testDriver));
+
+        List<DriverDO> result = driverService.findNearby(52.5201, 13.4050, 5000, null, 10);
+
+        assertEquals(2, result.size());
+        assertEquals("driver1", result.get(0).getUsername());
+        assertEquals("far", result.get(1).getUsername());
+    }
+
+    @Test
+    public void findNearby_fillsLimitPastDeletedCandidates() throws ConstraintsViolationException {
+        DriverDO deletedDriver = new DriverDO("deleted", "pass");
+        deletedDriver.setId(2L);
+        deletedDriver.setDeleted(true);
+        DriverDO farDriver = new DriverDO("far", "pass");
+        farDriver.setId(3L);
+        deletedDriver.setCoordinate(new GeoCoordinate(52.5200, 13.4050));
+        farDriver.setCoordinate(new GeoCoordinate(52.5300, 13.4050));
+        driverLocationIndex.update(2L, deletedDriver.getCoordinate(), null, OnlineStatus.OFFLINE);
+        driverLocationIndex.update(3L, farDriver.getCoordinate(), null, OnlineStatus.OFFLINE);
+        when(driverRepository.findAllById(List.of(2L))).thenReturn(List.of(deletedDriver));
+        when(driverRepository.findAllById(List.of(3L))).thenReturn(List.of(farDriver));
+
+        List<DriverDO> result = driverService.findNearby(52.5201, 13.4050, 5000, null, 1);
+
+        assertEquals(List.of(farDriver), result);
+    }
+
+    @Test
+    public void findNearby_invalidRadius() {
+        assertThrows(ConstraintsViolationException.class, () -> {
+            driverService.findNearby(52.52, 13.405, 0, null, 10);
+        });
+    }
+
+    @Test
+    public void findNearby_invalidLatitude() {
+        assertThrows(ConstraintsViolationException.class, () -> {
+            driverService.findNearby(91, 13.405, 100, null, 10);
+        });
+    }
+
+    @Test
+    public void findDrivers_delegatesToKeysetPage() throws ConstraintsViolationException {
+        when(driverRepository.findSummaryPage(Mockito.any(), Mockito.eq(50)))
+            .thenReturn(List.of(new DriverSummary(1L, "driver1", "pass1", null)));
+
+        List<DriverSummary> result = driverService.findDrivers(OnlineStatus.OFFLINE, "driver1", false, 0L, 50);
+
+        assertEquals(1, result.size());
+        assertEquals("driver1", result.get(0).username());
+    }
+
+    @Test
+    public void findDrivers_showsBufferedLocation() throws ConstraintsViolationException {
+        LocationWriteBehindBuffer buffer = Mockito.mock(LocationWriteBehindBuffer.class);
+        driverService.setLocationWriteBehindBuffer(buffer);
+        GeoCoordinate buffered = new GeoCoordinate(52.52, 13.405);
+        when(buffer.get(1L)).thenReturn(new LocationUpdate(1L, buffered, ZonedDateTime.now()));
+        when(driverRepository.findSummaryPage(Mockito.any(), Mockito.eq(50)))
+            .thenReturn(List.of(new DriverSummary(1L, "driver1", "pass1", null), new DriverSummary(2L, "driver2", "pass2", null)));
+
+        List<DriverSummary> result = driverService.findDrivers(null, null, null, null, 50);
+
+        assertEquals(buffered, result.get(0).coordinate());
+        assertNull(result.get(1).coordinate());
+    }
+
+    @Test
+    public void findByIds_inRequestOrder() throws ConstraintsViolationException {
+        when(driverRepository.findSummaryPage(Mockito.any(), Mockito.eq(3)))
+            .thenReturn(List.of(new DriverSummary(1L, "driver1", "pass1", null), new DriverSummary(3L, "driver3", "pass3", null)));
+
+        Map<Long, DriverSummary> result = driverService.findByIds(List.of(3L, 2L, 1L));
+
+        assertEquals(List.of(3L, 1L), List.copyOf(result.keySet()));
+    }
+
+    @Test
+    public void findDrivers_invalidLimit() {
+        assertThrows(ConstraintsViolationException.class, () -> {
+            driverService.findDrivers(null, null, null, null, 0);
+        });
+    }
+
     @Test
     public void findAll_success() {
         DriverDO driver2 = new DriverDO("driver2", "pass2");
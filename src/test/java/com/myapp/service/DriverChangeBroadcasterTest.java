@@ -0,0 +1,145 @@
+package com.myapp.service;
+
+import com.myapp.domainvalue.BoundingBox;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.service.driver.DriverChangeBroadcaster;
+import com.myapp.service.driver.DriverChangedEvent;
+import com.myapp.service.driver.DriverLocationIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DriverChangeBroadcasterTest {
+
+    private static final GeoCoordinate BERLIN = new GeoCoordinate(52.52, 13.405);
+
+    private static final GeoCoordinate POTSDAM = new GeoCoordinate(52.39, 13.06);
+
+    private final DriverLocationIndex driverLocationIndex = new DriverLocationIndex();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BlockingQueue<List<DriverChangedEvent>> batches = new LinkedBlockingQueue<>();
+
+    /** the sink waits for it after receiving the first batch */
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private final CountDownLatch firstBatchReceived = new CountDownLatch(1);
+
+    private DriverChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    public void setUp() {
+        broadcaster = new DriverChangeBroadcaster(driverLocationIndex, 2, TimeUnit.MINUTES.toMillis(1), meterRegistry);
+        broadcaster.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    public void slowSubscriberGetsLatestLocationPerDriver() throws Exception {
+        broadcaster.subscribe(null, this::blockAfterFirstBatch);
+
+        broadcaster.onDriverChanged(location(1L, BERLIN));
+        assertTrue(firstBatchReceived.await(5, TimeUnit.SECONDS));
+        broadcaster.onDriverChanged(location(1L, POTSDAM));
+        broadcaster.onDriverChanged(location(2L, BERLIN));
+        broadcaster.onDriverChanged(location(1L, BERLIN));
+        released.countDown();
+
+        assertEquals(List.of(1L), driverIds(nextBatch()));
+        List<DriverChangedEvent> coalesced = nextBatch();
+        assertEquals(List.of(1L, 2L), driverIds(coalesced));
+        assertEquals(BERLIN.getLatitude(), coalesced.get(0).getCoordinate().getLatitude(), 0.0001);
+    }
+
+    @Test
+    public void fullQueueDropsFurtherDrivers() throws Exception {
+        DriverChangeBroadcaster.Subscription subscription = broadcaster.subscribe(null, this::blockAfterFirstBatch);
+
+        broadcaster.onDriverChanged(location(1L, BERLIN));
+        assertTrue(firstBatchReceived.await(5, TimeUnit.SECONDS));
+        broadcaster.onDriverChanged(location(2L, BERLIN));
+        broadcaster.onDriverChanged(location(3L, BERLIN));
+        broadcaster.onDriverChanged(location(4L, BERLIN));
+        broadcaster.onDriverChanged(location(2L, POTSDAM));
+        released.countDown();
+
+        nextBatch();
+        assertEquals(List.of(2L, 3L), driverIds(nextBatch()));
+        assertEquals(1, subscription.getDropped());
+        assertEquals(1.0, meterRegistry.get("myapp.driver.stream.dropped").counter().count());
+    }
+
+    @Test
+    public void boundingBoxReportsLeavingDriverOnce() throws Exception {
+        released.countDown();
+        broadcaster.subscribe(new BoundingBox(52.4, 13.3, 52.6, 13.5), this::blockAfterFirstBatch);
+
+        broadcaster.onDriverChanged(location(1L, BERLIN));
+        assertEquals(List.of(1L), driverIds(nextBatch()));
+        broadcaster.onDriverChanged(location(2L, POTSDAM));
+        broadcaster.onDriverChanged(location(1L, POTSDAM));
+        assertEquals(List.of(1L), driverIds(nextBatch()));
+        broadcaster.onDriverChanged(location(1L, POTSDAM));
+
+        assertNull(batches.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void boundingBoxReportsStatusOfIndexedDriver() throws Exception {
+        released.countDown();
+        driverLocationIndex.update(1L, BERLIN, null, OnlineStatus.OFFLINE);
+        driverLocationIndex.update(2L, POTSDAM, null, OnlineStatus.OFFLINE);
+        broadcaster.subscribe(new BoundingBox(52.4, 13.3, 52.6, 13.5), this::blockAfterFirstBatch);
+
+        broadcaster.onDriverChanged(DriverChangedEvent.status(2L, OnlineStatus.ONLINE));
+        broadcaster.onDriverChanged(DriverChangedEvent.status(1L, OnlineStatus.ONLINE));
+
+        List<DriverChangedEvent> batch = nextBatch();
+        assertEquals(List.of(1L), driverIds(batch));
+        assertEquals(BERLIN.getLatitude(), batch.get(0).getCoordinate().getLatitude(), 0.0001);
+        assertEquals(OnlineStatus.ONLINE, batch.get(0).getOnlineStatus());
+    }
+
+    private void blockAfterFirstBatch(List<DriverChangedEvent> events) {
+        batches.add(events);
+        firstBatchReceived.countDown();
+        try {
+            released.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<DriverChangedEvent> nextBatch() throws InterruptedException {
+        List<DriverChangedEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+        assertTrue(batch != null, "no batch received");
+        return batch;
+    }
+
+    private static DriverChangedEvent location(long driverId, GeoCoordinate coordinate) {
+        return DriverChangedEvent.location(driverId, coordinate, ZonedDateTime.now());
+    }
+
+    private static List<Long> driverIds(List<DriverChangedEvent> events) {
+        return events.stream().map(DriverChangedEvent::getDriverId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,118 @@
+package com.myapp.service;
+
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.service.driver.DriverLocationIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DriverLocationIndexTest {
+
+    private static final GeoCoordinate CENTER = new GeoCoordinate(52.5200, 13.4050);
+
+    private final DriverLocationIndex index = new DriverLocationIndex();
+
+    @Test
+    public void findNearby_onlyWithinRadius() {
+        index.update(1L, new GeoCoordinate(52.5205, 13.4050), null, OnlineStatus.ONLINE);
+        index.update(2L, new GeoCoordinate(52.5300, 13.4050), null, OnlineStatus.ONLINE);
+        index.update(3L, new GeoCoordinate(53.5511, 9.9937), null, OnlineStatus.ONLINE);
+
+        List<DriverLocationIndex.Match> result = index.findNearby(CENTER, 2_000, null, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getDriverId());
+        assertEquals(2L, result.get(1).getDriverId());
+        assertTrue(result.get(0).getDistanceMeters() < result.get(1).getDistanceMeters());
+    }
+
+    @Test
+    public void findNearby_filtersByOnlineStatus() {
+        index.update(1L, new GeoCoordinate(52.5205, 13.4050), null, OnlineStatus.OFFLINE);
+        index.update(2L, new GeoCoordinate(52.5210, 13.4050), null, OnlineStatus.ONLINE);
+
+        List<DriverLocationIndex.Match> result = index.findNearby(CENTER, 1_000, OnlineStatus.ONLINE, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getDriverId());
+    }
+
+    @Test
+    public void findNearby_respectsLimit() {
+        for (long id = 1; id <= 10; id++) {
+            index.update(id, new GeoCoordinate(52.5200 + id * 0.0001, 13.4050), null, OnlineStatus.ONLINE);
+        }
+
+        List<DriverLocationIndex.Match> result = index.findNearby(CENTER, 1_000, null, 3);
+
+        assertEquals(3, result.size());
+        assertEquals(1L, result.get(0).getDriverId());
+    }
+
+    @Test
+    public void update_movesDriverAcrossCells() {
+        index.update(1L, new GeoCoordinate(40.7100, -74.0000), null, OnlineStatus.ONLINE);
+        index.update(1L, new GeoCoordinate(52.5201, 13.4050), null, OnlineStatus.ONLINE);
+
+        assertEquals(1, index.size());
+        assertEquals(1, index.findNearby(CENTER, 100, null, 10).size());
+        assertEquals(0, index.findNearby(new GeoCoordinate(40.7100, -74.0000), 100, null, 10).size());
+    }
+
+    @Test
+    public void remove() {
+        index.update(1L, new GeoCoordinate(52.5201, 13.4050), null, OnlineStatus.ONLINE);
+
+        index.remove(1L);
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.findNearby(CENTER, 1_000, null, 10).size());
+    }
+
+    @Test
+    public void rebuild_skipsDeletedAndUnlocatedDrivers() {
+        DriverDO located = new DriverDO("located", "pw");
+        located.setId(1L);
+        located.setCoordinate(new GeoCoordinate(52.5201, 13.4050));
+        DriverDO deleted = new DriverDO("deleted", "pw");
+        deleted.setId(2L);
+        deleted.setCoordinate(new GeoCoordinate(52.5202, 13.4050));
+        deleted.setDeleted(true);
+        DriverDO unlocated = new DriverDO("unlocated", "pw");
+        unlocated.setId(3L);
+        index.update(4L, new GeoCoordinate(52.5203, 13.4050), null, OnlineStatus.ONLINE);
+
+        index.rebuild(Arrays.asList(located, deleted, unlocated));
+
+        assertEquals(1, index.size());
+        assertEquals(1L, index.findNearby(CENTER, 1_000, null, 10).get(0).getDriverId());
+    }
+
+    @Test
+    public void findNearby_hugeRadiusScansAllDrivers() {
+        index.update(1L, new GeoCoordinate(52.5201, 13.4050), null, OnlineStatus.ONLINE);
+        index.update(2L, new GeoCoordinate(-33.8688, 151.2093), null, OnlineStatus.ONLINE);
+
+        assertEquals(2, index.findNearby(CENTER, 20_100_000, null, 10).size());
+    }
+
+    @Test
+    public void findNearby_acrossAntimeridian() {
+        index.update(1L, new GeoCoordinate(-17.7134, 179.9990), null, OnlineStatus.ONLINE);
+        index.update(2L, new GeoCoordinate(-17.7134, 180.0), null, OnlineStatus.ONLINE);
+        index.update(3L, new GeoCoordinate(-17.7134, 179.0), null, OnlineStatus.ONLINE);
+
+        List<DriverLocationIndex.Match> east = index.findNearby(new GeoCoordinate(-17.7134, -179.9990), 1_000, null, 10);
+        List<DriverLocationIndex.Match> west = index.findNearby(new GeoCoordinate(-17.7134, 179.9995), 1_000, null, 10);
+
+        assertEquals(Arrays.asList(2L, 1L), east.stream().map(DriverLocationIndex.Match::getDriverId).collect(Collectors.toList()));
+        assertEquals(2, west.size());
+    }
+}
@@ -0,0 +1,159 @@
+package com.myapp.service;
+
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainvalue.OnlineStatus;
+import com.myapp.exception.DriverOfflineException;
+import com.myapp.exception.EntityNotFoundException;
+import com.myapp.service.driver.DriverChangedEvent;
+import com.myapp.service.driver.DriverLocationIndex;
+import com.myapp.service.driver.DriverPresenceTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DriverPresenceTrackerTest {
+
+    private static final int TIMEOUT_TICKS = 3;
+
+    @Mock
+    private DriverRepository driverRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DriverLocationIndex driverLocationIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DriverPresenceTracker tracker;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new DriverPresenceTracker(driverRepository, transactionManager, eventPublisher, driverLocationIndex,
+                meterRegistry, TIMEOUT_TICKS, 1000, 1000);
+    }
+
+    @Test
+    public void online_expiresAfterTimeoutWithoutHeartbeat() throws Exception {
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.OFFLINE));
+
+        tracker.online(1L);
+        ticks(TIMEOUT_TICKS - 1);
+        assertTrue(tracker.isOnline(1L));
+        tracker.tick();
+
+        assertFalse(tracker.isOnline(1L));
+        assertEquals(1.0, meterRegistry.get("myapp.driver.presence.expired").counter().count());
+        Mockito.verify(driverLocationIndex).updateOnlineStatus(1L, OnlineStatus.OFFLINE);
+        assertThrows(DriverOfflineException.class, () -> tracker.heartbeat(1L));
+    }
+
+    @Test
+    public void heartbeat_extendsTimeout() throws Exception {
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.OFFLINE));
+        tracker.online(1L);
+
+        for (int i = 0; i < 10; i++) {
+            tracker.tick();
+            tracker.heartbeat(1L);
+        }
+        ticks(TIMEOUT_TICKS - 1);
+
+        assertTrue(tracker.isOnline(1L));
+        assertEquals(0.0, meterRegistry.get("myapp.driver.presence.expired").counter().count());
+    }
+
+    @Test
+    public void online_rejectsUnknownDriver() {
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> tracker.online(1L));
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    public void offline_stopsTrackingAndWritesLatestStatus() throws Exception {
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.OFFLINE));
+        tracker.online(1L);
+        tracker.offline(1L);
+        ticks(TIMEOUT_TICKS);
+
+        tracker.flush();
+
+        assertEquals(0.0, meterRegistry.get("myapp.driver.presence.expired").counter().count());
+        Mockito.verify(driverRepository).updateOnlineStatus(List.of(1L), OnlineStatus.OFFLINE);
+        Mockito.verify(driverRepository, Mockito.never()).updateOnlineStatus(Mockito.anyCollection(), Mockito.eq(OnlineStatus.ONLINE));
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(DriverChangedEvent.class));
+    }
+
+    @Test
+    public void flush_keepsStatusIfWritingFails() throws Exception {
+        when(driverRepository.findOnlineStatusOfActiveDriver(1L)).thenReturn(Optional.of(OnlineStatus.OFFLINE));
+        when(driverRepository.updateOnlineStatus(Mockito.anyCollection(), Mockito.any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+        tracker.online(1L);
+
+        tracker.flush();
+        tracker.flush();
+        tracker.flush();
+
+        Mockito.verify(driverRepository, Mockito.times(2)).updateOnlineStatus(List.of(1L), OnlineStatus.ONLINE);
+    }
+
+    @Test
+    public void restore_expiresManySilentDriversInBatches() {
+        int drivers = 100_000;
+        List<Long> driverIds = LongStream.rangeClosed(1, drivers).boxed().collect(Collectors.toList());
+        when(driverRepository.findIdsByOnlineStatus(OnlineStatus.ONLINE)).thenReturn(driverIds);
+        tracker.restore();
+        assertEquals(drivers, tracker.size());
+
+        ticks(TIMEOUT_TICKS);
+        tracker.flush();
+
+        assertEquals(0, tracker.size());
+        assertEquals(drivers, meterRegistry.get("myapp.driver.presence.expired").counter().count());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> batches = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(driverRepository, Mockito.times(drivers / 1000))
+                .updateOnlineStatus(batches.capture(), Mockito.eq(OnlineStatus.OFFLINE));
+        Set<Long> written = new HashSet<>();
+        batches.getAllValues().forEach(written::addAll);
+        assertEquals(drivers, written.size());
+    }
+
+    private void ticks(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tracker.tick();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.myapp.service;
+
+import com.myapp.domainvalue.BatchItemStatus;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.LocationUpdate;
+import com.myapp.service.driver.LocationUpdateFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LocationUpdateFilterTest {
+
+    private static final GeoCoordinate BERLIN = new GeoCoordinate(52.52, 13.405);
+
+    /** about 7 m east of BERLIN */
+    private static final GeoCoordinate NEXT_TO_BERLIN = new GeoCoordinate(52.52, 13.4051);
+
+    /** about 70 m east of BERLIN */
+    private static final GeoCoordinate NEAR_BERLIN = new GeoCoordinate(52.52, 13.406);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LocationUpdateFilter filter = new LocationUpdateFilter(10, 30, meterRegistry);
+
+    private final ZonedDateTime now = ZonedDateTime.now();
+
+    @Test
+    public void suppressesSmallMovesWithinTheInterval() {
+        assertEquals(BatchItemStatus.OK, filter.check(new LocationUpdate(1L, BERLIN, now)));
+        assertEquals(BatchItemStatus.SUPPRESSED, filter.check(new LocationUpdate(1L, NEXT_TO_BERLIN, now.plusSeconds(10))));
+        assertEquals(BatchItemStatus.OK, filter.check(new LocationUpdate(2L, NEXT_TO_BERLIN, now.plusSeconds(10))));
+    }
+
+    @Test
+    public void acceptsLargeMovesAndDueUpdates() {
+        filter.check(new LocationUpdate(1L, BERLIN, now));
+
+        assertEquals(BatchItemStatus.OK, filter.check(new LocationUpdate(1L, NEAR_BERLIN, now.plusSeconds(1))));
+        // the interval starts again with the last accepted update
+        assertEquals(BatchItemStatus.SUPPRESSED, filter.check(new LocationUpdate(1L, NEAR_BERLIN, now.plusSeconds(30))));
+        assertEquals(BatchItemStatus.OK, filter.check(new LocationUpdate(1L, NEAR_BERLIN, now.plusSeconds(31))));
+    }
+
+    @Test
+    public void rejectsUpdatesOlderThanTheLastAcceptedOne() {
+        filter.check(new LocationUpdate(1L, BERLIN, now));
+
+        assertEquals(BatchItemStatus.STALE, filter.check(new LocationUpdate(1L, NEAR_BERLIN, now.minusSeconds(1))));
+    }
+
+    @Test
+    public void forgottenDriverStartsOver() {
+        filter.check(new LocationUpdate(1L, BERLIN, now));
+        filter.forget(1L);
+
+        assertEquals(BatchItemStatus.OK, filter.check(new LocationUpdate(1L, NEXT_TO_BERLIN, now.plusSeconds(1))));
+    }
+
+    @Test
+    public void countsOutcomes() {
+        filter.check(new LocationUpdate(1L, BERLIN, now));
+        filter.check(new LocationUpdate(1L, BERLIN, now.plusSeconds(1)));
+        filter.check(new LocationUpdate(1L, BERLIN, now.plusSeconds(2)));
+        filter.check(new LocationUpdate(1L, BERLIN, now.minusSeconds(1)));
+
+        assertEquals(1, count("accepted"));
+        assertEquals(2, count("suppressed"));
+        assertEquals(1, count("stale"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("myapp.driver.location.filter").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,114 @@
+package com.myapp.service;
+
+import com.myapp.dataaccessobject.DriverRepository;
+import com.myapp.domainobject.DriverDO;
+import com.myapp.domainvalue.GeoCoordinate;
+import com.myapp.domainvalue.LocationUpdate;
+import com.myapp.exception.LocationBufferFullException;
+import com.myapp.service.driver.LocationWriteBehindBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationWriteBehindBufferTest {
+
+    @Mock
+    private DriverRepository driverRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LocationWriteBehindBuffer buffer;
+
+    private final ZonedDateTime now = ZonedDateTime.now();
+
+    @BeforeEach
+    public void setUp() {
+        buffer = new LocationWriteBehindBuffer(driverRepository, transactionManager, 2, 1000, 500);
+    }
+
+    @Test
+    public void offer_keepsLatestPositionPerDriver() {
+        LocationUpdate latest = new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), now);
+        buffer.offer(latest);
+        buffer.offer(new LocationUpdate(1L, new GeoCoordinate(40.71, -74.00), now.minusSeconds(5)));
+
+        assertEquals(1, buffer.size());
+        assertEquals(latest, buffer.get(1L));
+    }
+
+    @Test
+    public void flush_writesBufferedPositions() {
+        DriverDO driver = new DriverDO("driver1", "pw");
+        driver.setId(1L);
+        when(driverRepository.findAllById(Mockito.anyIterable())).thenReturn(Arrays.asList(driver));
+        buffer.offer(new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), now));
+
+        buffer.flush();
+
+        assertEquals(52.52, driver.getCoordinate().getLatitude(), 0.0001);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void flush_writesInItsOwnTransaction() {
+        when(driverRepository.findAllById(Mockito.anyIterable())).thenReturn(List.of());
+        buffer.offer(new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), now));
+
+        buffer.flush();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+    }
+
+    @Test
+    public void flush_keepsPositionsIfWritingFails() {
+        when(driverRepository.findAllById(Mockito.anyIterable())).thenThrow(new DataAccessResourceFailureException("down"));
+        buffer.offer(new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), now));
+
+        buffer.flush();
+
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void offer_rejectsWhenStillFullAfterFlush() {
+        when(driverRepository.findAllById(Mockito.anyIterable())).thenThrow(new DataAccessResourceFailureException("down"));
+        buffer.offer(new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), now));
+        buffer.offer(new LocationUpdate(2L, new GeoCoordinate(52.52, 13.405), now));
+
+        assertThrows(LocationBufferFullException.class, () -> {
+            buffer.offer(new LocationUpdate(3L, new GeoCoordinate(52.52, 13.405), now));
+        });
+    }
+
+    @Test
+    public void discardUpTo_dropsOlderBufferedPosition() {
+        buffer.offer(new LocationUpdate(1L, new GeoCoordinate(52.52, 13.405), now.minusSeconds(5)));
+        buffer.offer(new LocationUpdate(2L, new GeoCoordinate(52.52, 13.405), now.plusSeconds(5)));
+
+        buffer.discardUpTo(new LocationUpdate(1L, new GeoCoordinate(40.71, -74.00), now));
+        buffer.discardUpTo(new LocationUpdate(2L, new GeoCoordinate(40.71, -74.00), now));
+
+        assertNull(buffer.get(1L));
+        assertEquals(1, buffer.size());
+    }
+}
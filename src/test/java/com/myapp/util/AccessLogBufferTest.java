@@ -0,0 +1,56 @@
+package com.myapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessLogBufferTest {
+
+    @Test
+    public void drain_returnsRecordsInOrder() {
+        AccessLogBuffer buffer = new AccessLogBuffer(4);
+        buffer.offer(1L, "GET", "/v1/cars", 200, 10, "127.0.0.1", null);
+        buffer.offer(2L, "PUT", "/v1/drivers/1", 400, 20, "127.0.0.1", null);
+
+        List<String> uris = new ArrayList<>();
+        int count = buffer.drain(record -> uris.add(record.getUri()), 10);
+
+        assertEquals(2, count);
+        assertEquals(List.of("/v1/cars", "/v1/drivers/1"), uris);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void offer_dropsWhenFull() {
+        AccessLogBuffer buffer = new AccessLogBuffer(2);
+        assertTrue(buffer.offer(1L, "GET", "/a", 200, 1, "127.0.0.1", null));
+        assertTrue(buffer.offer(2L, "GET", "/b", 200, 1, "127.0.0.1", null));
+
+        assertFalse(buffer.offer(3L, "GET", "/c", 200, 1, "127.0.0.1", null));
+        assertEquals(1, buffer.getDropped());
+    }
+
+    @Test
+    public void drain_freesSlotsForReuse() {
+        AccessLogBuffer buffer = new AccessLogBuffer(2);
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i, "GET", "/" + i, 200, 1, "127.0.0.1", null);
+            buffer.drain(record -> uris.add(record.getUri()), 1);
+        }
+
+        assertEquals(List.of("/0", "/1", "/2", "/3", "/4"), uris);
+        assertEquals(0, buffer.getDropped());
+    }
+
+    @Test
+    public void capacity_roundedUpToPowerOfTwo() {
+        assertEquals(8, new AccessLogBuffer(5).capacity());
+        assertEquals(8, new AccessLogBuffer(8).capacity());
+    }
+}
@@ -0,0 +1,54 @@
+package com.myapp.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LoggingInterceptorTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/cars");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    public void successfulRequestsAreSampled() throws Exception {
+        LoggingInterceptor interceptor = interceptor(0.0, 500);
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(0, interceptor.getBuffer().size());
+    }
+
+    @Test
+    public void failedRequestsAreAlwaysLogged() throws Exception {
+        LoggingInterceptor interceptor = interceptor(0.0, 500);
+        response.setStatus(404);
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(1, interceptor.getBuffer().size());
+        assertEquals(1, interceptor.writeBatch());
+        assertEquals(0, interceptor.getBuffer().size());
+    }
+
+    @Test
+    public void slowRequestsAreAlwaysLogged() throws Exception {
+        LoggingInterceptor interceptor = interceptor(0.0, 0);
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(1, interceptor.getBuffer().size());
+    }
+
+    private static LoggingInterceptor interceptor(double sampleRate, long slowRequestMillis) {
+        return new LoggingInterceptor(16, sampleRate, slowRequestMillis, 200,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+}